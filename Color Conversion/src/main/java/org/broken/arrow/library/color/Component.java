@@ -1,6 +1,10 @@
 package org.broken.arrow.library.color;
 
 import com.google.gson.JsonObject;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import javax.annotation.Nonnull;
 
 /**
  * Create one immutable instance.
@@ -132,6 +136,134 @@ public final class Component {
 
 	}
 
+	/**
+	 * Write the set data as json to the builder, without creating a {@link JsonObject} first.
+	 * The output is the same as {@code toJson().toString()}.
+	 *
+	 * @param builder the builder to append the json to.
+	 * @return the same builder.
+	 */
+	public StringBuilder appendJson(@Nonnull final StringBuilder builder) {
+		builder.append('{');
+		boolean first = true;
+		if (colorCode != null)
+			first = appendProperty(builder, first, "color", colorCode);
+		if (!reset) {
+			if (bold)
+				first = appendProperty(builder, first, "bold", null);
+			if (strikethrough)
+				first = appendProperty(builder, first, "strikethrough", null);
+			if (underline)
+				first = appendProperty(builder, first, "underline", null);
+			if (italic)
+				first = appendProperty(builder, first, "italic", null);
+			if (obfuscated)
+				first = appendProperty(builder, first, "obfuscated", null);
+		}
+		if (message != null)
+			appendProperty(builder, first, "text", message);
+		return builder.append('}');
+	}
+
+	/**
+	 * Convert the set data to a BungeeCord component, without creating json first.
+	 * A color Bungee can't read is not set.
+	 *
+	 * @return a new text component with the set color and formatting.
+	 */
+	public TextComponent toBaseComponent() {
+		final TextComponent component = new TextComponent(message != null ? message : "");
+		final ChatColor color = getBungeeColor();
+		if (color != null)
+			component.setColor(color);
+		if (!reset) {
+			if (bold)
+				component.setBold(true);
+			if (strikethrough)
+				component.setStrikethrough(true);
+			if (underline)
+				component.setUnderlined(true);
+			if (italic)
+				component.setItalic(true);
+			if (obfuscated)
+				component.setObfuscated(true);
+		}
+		return component;
+	}
+
+	private ChatColor getBungeeColor() {
+		if (colorCode == null)
+			return null;
+		String color = colorCode;
+		if (color.length() == 4 && color.charAt(0) == '#')
+			color = "#" + color.charAt(1) + color.charAt(1) + color.charAt(2) + color.charAt(2) + color.charAt(3) + color.charAt(3);
+		try {
+			return ChatColor.of(color);
+		} catch (IllegalArgumentException ignore) {
+			return null;
+		}
+	}
+
+	/**
+	 * Append one property, a {@code null} value is written as {@code true}.
+	 */
+	private static boolean appendProperty(final StringBuilder builder, final boolean first, final String key, final String value) {
+		if (!first)
+			builder.append(',');
+		builder.append('"').append(key).append("\":");
+		if (value == null)
+			builder.append("true");
+		else
+			appendString(builder, value);
+		return false;
+	}
+
+	/**
+	 * Append the text as a json string, escaped the same way as Gson does.
+	 *
+	 * @param builder the builder to append the text to.
+	 * @param text    the text to escape.
+	 */
+	public static void appendString(@Nonnull final StringBuilder builder, @Nonnull final String text) {
+		builder.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			final char letter = text.charAt(i);
+			switch (letter) {
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				case '\b':
+					builder.append("\\b");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\f':
+					builder.append("\\f");
+					break;
+				case '\u2028':
+				case '\u2029':
+					builder.append(String.format("\\u%04x", (int) letter));
+					break;
+				default:
+					if (letter < 0x20)
+						builder.append(String.format("\\u%04x", (int) letter));
+					else
+						builder.append(letter);
+			}
+		}
+		builder.append('"');
+	}
+
 	/**
 	 * Create json, you have several options to chose from.
 	 */
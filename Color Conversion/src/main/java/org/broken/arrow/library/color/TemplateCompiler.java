@@ -0,0 +1,319 @@
+package org.broken.arrow.library.color;
+
+import org.broken.arrow.library.color.TemplateSegment.CodeSlot;
+import org.broken.arrow.library.color.TemplateSegment.GradientRun;
+import org.broken.arrow.library.color.TemplateSegment.HexSlot;
+import org.broken.arrow.library.color.TemplateSegment.Literal;
+import org.broken.arrow.library.color.TemplateSegment.RecordingSink;
+import org.broken.arrow.library.color.TemplateSegment.Slot;
+import org.broken.arrow.library.color.TemplateSegment.Text;
+import org.broken.arrow.library.color.TextTranslator.GradientType;
+import org.broken.arrow.library.color.utility.PlaceholderSlots;
+import org.broken.arrow.library.color.utility.StringUtility;
+import org.broken.arrow.library.color.utility.TextGradientUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a message into the {@link TemplateSegment}s of a {@link TextTemplate}.
+ * <p>
+ * The message is read once from start to end. The text, the color codes, the hex colors and the
+ * gradients without any placeholder are translated here, and the parts next to each other are
+ * joined to one {@link Literal}. Only the placeholder slots, and the gradients and colors that
+ * use a placeholder, are left to be filled in when the template is rendered.
+ * </p>
+ * <p>
+ * A gradient colors the text after it, until the next color code, hex color or gradient.
+ * The formatting codes (<strong>&amp;l</strong>, <strong>&amp;o</strong> and so on) do not end
+ * the gradient.
+ * </p>
+ */
+final class TemplateCompiler {
+
+	private static final String DECORATION_CODES = "KkLlMmNnOo";
+	private static final String SIMPLE_GRADIENT = GradientType.SIMPLE_GRADIENT_PATTERN.getType() + "<";
+	private static final String HSV_GRADIENT = GradientType.HSV_GRADIENT_PATTERN.getType() + "<";
+	private static final String PORTION = "_portion<";
+	private static final int SIMPLE_GRADIENT_LENGTH = "<#000000:#000000>".length();
+
+	private final String raw;
+	private final char[] chars;
+	private final boolean findSlots;
+	private final List<String> slotNames = new ArrayList<>();
+	private final List<TemplateSegment> segments = new ArrayList<>();
+	private final RecordingSink recorder = new RecordingSink(this.segments);
+	private int index;
+
+	/**
+	 * Create a compiler for the message.
+	 *
+	 * @param raw       the message with colors and placeholders.
+	 * @param findSlots {@code false} to read the placeholders as plain text.
+	 */
+	TemplateCompiler(@Nonnull final String raw, final boolean findSlots) {
+		this.raw = raw;
+		this.chars = raw.toCharArray();
+		this.findSlots = findSlots;
+	}
+
+	/**
+	 * Compile the message.
+	 *
+	 * @return the segments, the parts without placeholders are joined to one {@link Literal}.
+	 */
+	@Nonnull
+	List<TemplateSegment> compile() {
+		while (this.index < this.chars.length) {
+			final char letter = this.chars[this.index];
+			if (letter == '{' && this.readSlot())
+				continue;
+			if ((letter == ChatColors.COLOR_AMPERSAND || letter == ChatColors.COLOR_CHAR) && this.readCode(letter))
+				continue;
+			if (letter == '<' && (this.readSimpleGradient() || this.readHex() || this.readHexSlot()))
+				continue;
+			if (letter == 'g' && this.readMultiGradient())
+				continue;
+			this.recorder.text(letter);
+			this.index++;
+		}
+		this.recorder.flush();
+		return joinLiterals(this.segments);
+	}
+
+	/**
+	 * Retrieve the names of the slots found by {@link #compile()}, in the order they are set in the message.
+	 *
+	 * @return the slot names.
+	 */
+	@Nonnull
+	List<String> getSlotNames() {
+		return slotNames;
+	}
+
+	private boolean readSlot() {
+		final int end = this.findSlotEnd(this.index);
+		if (end < 0)
+			return false;
+		final String slotRaw = this.raw.substring(this.index, end + 1);
+		this.addSegment(new Slot(this.addSlotName(end), slotRaw, literal(slotRaw)));
+		this.index = end + 1;
+		return true;
+	}
+
+	private boolean readCode(final char prefix) {
+		if (this.index + 1 >= this.chars.length)
+			return false;
+		final char code = this.chars[this.index + 1];
+		final int end = this.findSlotEnd(this.index + 1);
+		if (end >= 0) {
+			this.addSegment(new CodeSlot(this.addSlotName(end), prefix, literal(this.raw.substring(this.index, end + 1))));
+			this.index = end + 1;
+			return true;
+		}
+		if (TextTranslator.COLOR_CODES.indexOf(code) < 0)
+			return false;
+		this.recorder.style(TemplateSegment.codeStyle(prefix, code));
+		this.index += 2;
+		return true;
+	}
+
+	private boolean readHex() {
+		final int hexLength = TextTranslator.getHexLength(this.chars, this.index);
+		if (hexLength == 0 || (TextTranslator.isEscaped(this.chars, this.index) && !TextTranslator.hasUnescapedCopy(this.chars, this.index, hexLength)))
+			return false;
+		this.recorder.style(TemplateSegment.hexStyle(this.raw.substring(this.index + 2, this.index + hexLength - 1)));
+		this.index += hexLength;
+		return true;
+	}
+
+	private boolean readHexSlot() {
+		if (this.index + 2 >= this.chars.length || this.chars[this.index + 1] != '#')
+			return false;
+		final int end = this.findSlotEnd(this.index + 2);
+		if (end < 0 || end + 1 >= this.chars.length || this.chars[end + 1] != '>')
+			return false;
+		this.addSegment(new HexSlot(this.addSlotName(end), literal(this.raw.substring(this.index, end + 2))));
+		this.index = end + 2;
+		return true;
+	}
+
+	/**
+	 * Read a gradient between two colors, like <strong>&lt;#5e4fa2:#f79459&gt;</strong>.
+	 */
+	private boolean readSimpleGradient() {
+		final int start = this.index;
+		if (start + SIMPLE_GRADIENT_LENGTH > this.chars.length || this.chars[start + 1] != '#' || this.chars[start + 8] != ':'
+				|| this.chars[start + 9] != '#' || this.chars[start + 16] != '>')
+			return false;
+		for (int i = 2; i < 16; i++)
+			if (i != 8 && i != 9 && !TextTranslator.isHexDigit(this.chars[start + i]))
+				return false;
+		final Color[] colors = {StringUtility.hexToRgb(this.raw.substring(start + 1, start + 8)), StringUtility.hexToRgb(this.raw.substring(start + 9, start + 16))};
+		this.index += SIMPLE_GRADIENT_LENGTH;
+		this.readGradientText(GradientType.SIMPLE_GRADIENT_PATTERN, colors, null);
+		return true;
+	}
+
+	/**
+	 * Read a gradient with more colors, like <strong>gradients_&lt;#6B023E:#3360B3:#fc9&gt;</strong>
+	 * or <strong>gradients_hsv_&lt;#6B023E:#3360B3&gt;</strong>, with an optional
+	 * <strong>_portion&lt;0.2:0.8&gt;</strong> after it.
+	 */
+	private boolean readMultiGradient() {
+		final GradientType type;
+		final int colorStart;
+		if (this.raw.startsWith(HSV_GRADIENT, this.index)) {
+			type = GradientType.HSV_GRADIENT_PATTERN;
+			colorStart = this.index + HSV_GRADIENT.length();
+		} else if (this.raw.startsWith(SIMPLE_GRADIENT, this.index)) {
+			type = GradientType.SIMPLE_GRADIENT_PATTERN;
+			colorStart = this.index + SIMPLE_GRADIENT.length();
+		} else {
+			return false;
+		}
+		final int colorEnd = this.raw.indexOf('>', colorStart);
+		if (colorEnd < 0)
+			return false;
+		final String[] hexColors = this.raw.substring(colorStart, colorEnd).split(":");
+		final Color[] colors = new Color[hexColors.length];
+		for (int i = 0; i < hexColors.length; i++) {
+			if (!StringUtility.isValidHexCode(hexColors[i]))
+				return false;
+			colors[i] = StringUtility.hexToRgb(hexColors[i]);
+		}
+		int end = colorEnd + 1;
+		Double[] portions = null;
+		if (this.raw.startsWith(PORTION, end)) {
+			final int portionEnd = this.raw.indexOf('>', end);
+			if (portionEnd >= 0)
+				portions = readPortions(this.raw.substring(end + PORTION.length(), portionEnd), colors);
+			if (portions != null)
+				end = portionEnd + 1;
+		}
+		this.index = end;
+		if (colors.length == 1)
+			this.recorder.style(TemplateSegment.hexStyle(hexColors[0].substring(1)));
+		else
+			this.readGradientText(type, colors, portions);
+		return true;
+	}
+
+	/**
+	 * Read the text the gradient colors, until the next color or gradient.
+	 */
+	private void readGradientText(@Nonnull final GradientType type, @Nonnull final Color[] colors, @Nullable final Double[] portions) {
+		final List<TemplateSegment> body = new ArrayList<>();
+		final StringBuilder text = new StringBuilder();
+		while (this.index < this.chars.length) {
+			final char letter = this.chars[this.index];
+			if (letter == '{') {
+				final int end = this.findSlotEnd(this.index);
+				if (end >= 0) {
+					addText(body, text);
+					final String slotRaw = this.raw.substring(this.index, end + 1);
+					body.add(new Slot(this.addSlotName(end), slotRaw, literal(slotRaw)));
+					this.index = end + 1;
+					continue;
+				}
+			}
+			if ((letter == ChatColors.COLOR_AMPERSAND || letter == ChatColors.COLOR_CHAR) && this.index + 1 < this.chars.length) {
+				final char code = this.chars[this.index + 1];
+				if (DECORATION_CODES.indexOf(code) >= 0) {
+					addText(body, text);
+					body.add(TemplateSegment.codeStyle(ChatColors.COLOR_AMPERSAND, code));
+					this.index += 2;
+					continue;
+				}
+				if (TextTranslator.COLOR_CODES.indexOf(code) >= 0 || this.findSlotEnd(this.index + 1) >= 0)
+					break;
+			}
+			if (letter == '<' && this.index + 1 < this.chars.length && this.chars[this.index + 1] == '#')
+				break;
+			if (letter == 'g' && (this.raw.startsWith(SIMPLE_GRADIENT, this.index) || this.raw.startsWith(HSV_GRADIENT, this.index)))
+				break;
+			text.append(letter);
+			this.index++;
+		}
+		addText(body, text);
+
+		final GradientRun run = new GradientRun(new TextGradientUtil(type, ""), colors, portions, body);
+		if (run.isStatic())
+			run.render(this.recorder, TemplateSegment.NO_VALUES);
+		else
+			this.addSegment(run);
+	}
+
+	private int findSlotEnd(final int open) {
+		if (!this.findSlots || open >= this.chars.length || this.chars[open] != '{')
+			return -1;
+		return PlaceholderSlots.findSlotEnd(this.raw, open);
+	}
+
+	/**
+	 * Add the name of the slot that ends at the index.
+	 *
+	 * @return the number of the slot.
+	 */
+	private int addSlotName(final int end) {
+		this.slotNames.add(this.raw.substring(this.raw.lastIndexOf('{', end) + 1, end));
+		return this.slotNames.size() - 1;
+	}
+
+	private void addSegment(final TemplateSegment segment) {
+		this.recorder.flush();
+		this.segments.add(segment);
+	}
+
+	private static void addText(final List<TemplateSegment> body, final StringBuilder text) {
+		if (text.length() > 0) {
+			body.add(new Text(text.toString()));
+			text.setLength(0);
+		}
+	}
+
+	@Nullable
+	private static Double[] readPortions(final String values, final Color[] colors) {
+		final String[] split = values.split(":");
+		final Double[] portions = new Double[split.length];
+		try {
+			for (int i = 0; i < split.length; i++)
+				portions[i] = Double.parseDouble(split[i]);
+		} catch (NumberFormatException ignore) {
+			return null;
+		}
+		final Double[] checked = StringUtility.checkPortions(colors, portions);
+		return checked.length == colors.length - 1 ? checked : null;
+	}
+
+	/**
+	 * Compile the text of a slot without a value, it is written as it is but the colors
+	 * in it are still translated.
+	 */
+	private static Literal literal(final String text) {
+		final List<TemplateSegment> segments = new TemplateCompiler(text, false).compile();
+		return segments.isEmpty() ? new Literal(segments) : (Literal) segments.get(0);
+	}
+
+	private static List<TemplateSegment> joinLiterals(final List<TemplateSegment> segments) {
+		final List<TemplateSegment> joined = new ArrayList<>();
+		final List<TemplateSegment> parts = new ArrayList<>();
+		for (TemplateSegment segment : segments) {
+			if (segment.isStatic()) {
+				parts.add(segment);
+				continue;
+			}
+			if (!parts.isEmpty()) {
+				joined.add(new Literal(parts));
+				parts.clear();
+			}
+			joined.add(segment);
+		}
+		if (!parts.isEmpty())
+			joined.add(new Literal(parts));
+		return joined;
+	}
+}
@@ -0,0 +1,525 @@
+package org.broken.arrow.library.color;
+
+import org.broken.arrow.library.color.utility.LruCache;
+import org.broken.arrow.library.color.utility.TextGradientUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One part of a compiled {@link TextTemplate}, like a text, a color or a placeholder slot.
+ * <p>
+ * Every segment writes itself to a {@link Sink}, so the same segments are used for the Spigot
+ * format and for the json components. The segments are never changed after the template is
+ * compiled, so they can be rendered from many threads at the same time.
+ * </p>
+ */
+abstract class TemplateSegment {
+
+	/**
+	 * Used when no placeholder values are set, every slot is left as it is.
+	 */
+	static final SlotValues NO_VALUES = slot -> null;
+	private static final Style[] AMPERSAND_STYLES = createCodeStyles(true);
+	private static final Style[] COLOR_CHAR_STYLES = createCodeStyles(false);
+
+	/**
+	 * Write this segment with the placeholder values.
+	 *
+	 * @param sink   where the text and colors are written.
+	 * @param values the placeholder values.
+	 */
+	abstract void render(@Nonnull Sink sink, @Nonnull SlotValues values);
+
+	/**
+	 * Check if this segment is the same for every render.
+	 *
+	 * @return {@code false} if it uses any placeholder value.
+	 */
+	boolean isStatic() {
+		return true;
+	}
+
+	/**
+	 * Create the style for a hex color, like <strong>&lt;#5e4fa2&gt;</strong>. The Spigot format is
+	 * written the same way as {@link TextTranslator#toSpigotFormat(String)} does it, with the first
+	 * three digits doubled.
+	 *
+	 * @param digits the 3 or 6 hex digits, without the <strong>#</strong>.
+	 * @return the style.
+	 */
+	static Style hexStyle(@Nonnull final String digits) {
+		final StringBuilder spigot = new StringBuilder(14).append(ChatColors.COLOR_CHAR).append('x');
+		for (int i = 0; i < 3; i++) {
+			final char hex = Character.toLowerCase(digits.charAt(i));
+			spigot.append(ChatColors.COLOR_CHAR).append(hex).append(ChatColors.COLOR_CHAR).append(hex);
+		}
+		return new Style(spigot.toString(), "#" + digits);
+	}
+
+	/**
+	 * Retrieve the style for a color code, like <strong>&amp;c</strong>. A code set with
+	 * <strong>&amp;</strong> is set to lower case, like {@link TextTranslator#toSpigotFormat(String)} does it.
+	 *
+	 * @param prefix the <strong>&amp;</strong> or <strong>&#167;</strong> in front of the code.
+	 * @param code   the letter of the code, one of {@link TextTranslator#COLOR_CODES}.
+	 * @return the style.
+	 */
+	static Style codeStyle(final char prefix, final char code) {
+		return (prefix == ChatColors.COLOR_AMPERSAND ? AMPERSAND_STYLES : COLOR_CHAR_STYLES)[code];
+	}
+
+	private static Style[] createCodeStyles(final boolean ampersand) {
+		final Style[] styles = new Style[128];
+		for (int i = 0; i < TextTranslator.COLOR_CODES.length(); i++) {
+			final char code = TextTranslator.COLOR_CODES.charAt(i);
+			final char lowerCase = Character.toLowerCase(code);
+			final ChatColors color = ChatColors.getByChar(lowerCase);
+			styles[code] = new Style(String.valueOf(ChatColors.COLOR_CHAR) + (ampersand ? lowerCase : code), color != null ? color.getName() : null);
+		}
+		return styles;
+	}
+
+	/**
+	 * The values set for the placeholder slots.
+	 */
+	interface SlotValues {
+
+		/**
+		 * Retrieve the value for the slot.
+		 *
+		 * @param slot the number of the slot, in the order the slots are set in the message.
+		 * @return the value, or {@code null} if no value is set so the slot is left as it is.
+		 */
+		@Nullable
+		String get(int slot);
+	}
+
+	/**
+	 * Where the segments write the text and the colors.
+	 */
+	interface Sink {
+
+		/**
+		 * Write text without colors.
+		 *
+		 * @param text the text.
+		 */
+		void text(@Nonnull String text);
+
+		/**
+		 * Write one letter without colors.
+		 *
+		 * @param letter the letter.
+		 */
+		void text(char letter);
+
+		/**
+		 * Write a color or formatting code.
+		 *
+		 * @param style the code.
+		 */
+		void style(@Nonnull Style style);
+
+		/**
+		 * Write the text and colors that do not use any placeholder.
+		 *
+		 * @param literal the compiled text and colors.
+		 */
+		void literal(@Nonnull Literal literal);
+	}
+
+	/**
+	 * Text without colors.
+	 */
+	static final class Text extends TemplateSegment {
+		private final String text;
+
+		Text(@Nonnull final String text) {
+			this.text = text;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			sink.text(this.text);
+		}
+	}
+
+	/**
+	 * A color or formatting code, kept both in the Spigot format and in the format the
+	 * json components use.
+	 */
+	static final class Style extends TemplateSegment {
+		private final String spigot;
+		private final String format;
+
+		Style(@Nonnull final String spigot, @Nullable final String format) {
+			this.spigot = spigot;
+			this.format = format;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			sink.style(this);
+		}
+
+		String getSpigot() {
+			return spigot;
+		}
+
+		@Nullable
+		String getFormat() {
+			return format;
+		}
+	}
+
+	/**
+	 * Text and colors that do not use any placeholder, joined to the final Spigot text
+	 * when the template is compiled.
+	 */
+	static final class Literal extends TemplateSegment {
+		private final String spigot;
+		private final TemplateSegment[] parts;
+
+		Literal(@Nonnull final List<TemplateSegment> parts) {
+			this.parts = parts.toArray(new TemplateSegment[0]);
+			final SpigotSink sink = new SpigotSink(16);
+			for (TemplateSegment part : this.parts)
+				part.render(sink, NO_VALUES);
+			this.spigot = sink.toString();
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			sink.literal(this);
+		}
+
+		String getSpigot() {
+			return spigot;
+		}
+
+		void renderParts(@Nonnull final Sink sink) {
+			for (TemplateSegment part : this.parts)
+				part.render(sink, NO_VALUES);
+		}
+	}
+
+	/**
+	 * A placeholder slot, like <strong>{player}</strong>.
+	 */
+	static final class Slot extends TemplateSegment {
+		private final int slot;
+		private final String raw;
+		private final Literal missing;
+
+		Slot(final int slot, @Nonnull final String raw, @Nonnull final Literal missing) {
+			this.slot = slot;
+			this.raw = raw;
+			this.missing = missing;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			final String value = values.get(this.slot);
+			if (value != null)
+				sink.text(value);
+			else
+				sink.literal(this.missing);
+		}
+
+		@Override
+		boolean isStatic() {
+			return false;
+		}
+
+		/**
+		 * Retrieve the text set for the slot, or the slot itself if there is no value.
+		 */
+		String getText(@Nonnull final SlotValues values) {
+			final String value = values.get(this.slot);
+			return value != null ? value : this.raw;
+		}
+	}
+
+	/**
+	 * A color code that gets its letter from a placeholder, like <strong>&amp;{color}</strong>.
+	 */
+	static final class CodeSlot extends TemplateSegment {
+		private final int slot;
+		private final char prefix;
+		private final Literal missing;
+
+		CodeSlot(final int slot, final char prefix, @Nonnull final Literal missing) {
+			this.slot = slot;
+			this.prefix = prefix;
+			this.missing = missing;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			final String value = values.get(this.slot);
+			if (value == null) {
+				sink.literal(this.missing);
+				return;
+			}
+			if (value.isEmpty() || TextTranslator.COLOR_CODES.indexOf(value.charAt(0)) < 0) {
+				sink.text(this.prefix + value);
+				return;
+			}
+			sink.style(codeStyle(this.prefix, value.charAt(0)));
+			if (value.length() > 1)
+				sink.text(value.substring(1));
+		}
+
+		@Override
+		boolean isStatic() {
+			return false;
+		}
+	}
+
+	/**
+	 * A hex color that gets its digits from a placeholder, like <strong>&lt;#{color}&gt;</strong>.
+	 */
+	static final class HexSlot extends TemplateSegment {
+		private final int slot;
+		private final Literal missing;
+
+		HexSlot(final int slot, @Nonnull final Literal missing) {
+			this.slot = slot;
+			this.missing = missing;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			final String value = values.get(this.slot);
+			if (value == null)
+				sink.literal(this.missing);
+			else if (isHexDigits(value))
+				sink.style(hexStyle(value));
+			else
+				sink.text("<#" + value + ">");
+		}
+
+		@Override
+		boolean isStatic() {
+			return false;
+		}
+
+		private static boolean isHexDigits(final String value) {
+			if (value.length() != 3 && value.length() != 6)
+				return false;
+			for (int i = 0; i < value.length(); i++)
+				if (!TextTranslator.isHexDigit(value.charAt(i)))
+					return false;
+			return true;
+		}
+	}
+
+	/**
+	 * A gradient, like <strong>&lt;#5e4fa2:#f79459&gt;</strong>, and the text it colors. The colors
+	 * for every letter are calculated once for every length of the text, so rendering only joins the
+	 * letters with the colors already translated to the Spigot format.
+	 */
+	static final class GradientRun extends TemplateSegment {
+		private final TextGradientUtil gradient;
+		private final Color[] colors;
+		private final Double[] portions;
+		private final TemplateSegment[] body;
+		private final boolean fixed;
+		private final LruCache<Integer, Style[]> palettes = new LruCache<>(16);
+
+		GradientRun(@Nonnull final TextGradientUtil gradient, @Nonnull final Color[] colors, @Nullable final Double[] portions, @Nonnull final List<TemplateSegment> body) {
+			this.gradient = gradient;
+			this.colors = colors;
+			this.portions = portions;
+			this.body = body.toArray(new TemplateSegment[0]);
+			boolean fixed = true;
+			for (TemplateSegment part : this.body)
+				fixed &= part.isStatic();
+			this.fixed = fixed;
+		}
+
+		@Override
+		void render(@Nonnull final Sink sink, @Nonnull final SlotValues values) {
+			final String[] texts = new String[this.body.length];
+			int length = 0;
+			for (int i = 0; i < this.body.length; i++) {
+				final TemplateSegment part = this.body[i];
+				if (part instanceof Text)
+					texts[i] = ((Text) part).text;
+				else if (part instanceof Slot)
+					texts[i] = ((Slot) part).getText(values);
+				if (texts[i] != null)
+					length += texts[i].length();
+			}
+			if (length == 0) return;
+
+			final Style[] palette = this.fixed ? this.createPalette(length) : this.palettes.computeIfAbsent(length, this::createPalette);
+			Style decoration = null;
+			int index = 0;
+			for (int i = 0; i < this.body.length; i++) {
+				final String text = texts[i];
+				if (text == null) {
+					decoration = (Style) this.body[i];
+					continue;
+				}
+				for (int letterIndex = 0; letterIndex < text.length(); letterIndex++) {
+					final char letter = text.charAt(letterIndex);
+					if (letter != ' ' || decoration != null)
+						sink.style(palette[index]);
+					if (decoration != null)
+						sink.style(decoration);
+					sink.text(letter);
+					index++;
+				}
+			}
+		}
+
+		@Override
+		boolean isStatic() {
+			return this.fixed;
+		}
+
+		private Style[] createPalette(final int length) {
+			final String[] hexColors = this.gradient.getGradientPalette(this.colors, this.portions, length);
+			final Style[] palette = new Style[length];
+			for (int i = 0; i < length; i++) {
+				final String hex = hexColors[i];
+				palette[i] = hexStyle(hex.substring(2, hex.length() - 1));
+			}
+			return palette;
+		}
+	}
+
+	/**
+	 * Writes the text in the Spigot format.
+	 */
+	static final class SpigotSink implements Sink {
+		private final StringBuilder builder;
+
+		SpigotSink(final int capacity) {
+			this.builder = new StringBuilder(capacity);
+		}
+
+		@Override
+		public void text(@Nonnull final String text) {
+			this.builder.append(text);
+		}
+
+		@Override
+		public void text(final char letter) {
+			this.builder.append(letter);
+		}
+
+		@Override
+		public void style(@Nonnull final Style style) {
+			this.builder.append(style.getSpigot());
+		}
+
+		@Override
+		public void literal(@Nonnull final Literal literal) {
+			this.builder.append(literal.getSpigot());
+		}
+
+		@Override
+		public String toString() {
+			return this.builder.toString();
+		}
+	}
+
+	/**
+	 * Writes the text as json components, one component for every part of the text with its own
+	 * color or formatting. The formatting is kept when the color changes, like
+	 * {@link org.broken.arrow.library.color.utility.CreateComponent} does it.
+	 */
+	static final class ComponentSink implements Sink {
+		private final List<Component> components = new ArrayList<>();
+		private final Component.Builder component = new Component.Builder();
+		private final StringBuilder text = new StringBuilder();
+		private final String defaultColor;
+
+		ComponentSink(@Nullable final String defaultColor) {
+			this.defaultColor = (defaultColor == null || defaultColor.isEmpty()) ? "white" : defaultColor;
+		}
+
+		@Override
+		public void text(@Nonnull final String text) {
+			this.text.append(text);
+		}
+
+		@Override
+		public void text(final char letter) {
+			this.text.append(letter);
+		}
+
+		@Override
+		public void style(@Nonnull final Style style) {
+			if (style.getFormat() == null) return;
+			if (this.text.length() > 0) {
+				this.components.add(this.component.message(this.text.toString()).build());
+				this.text.setLength(0);
+			}
+			TextTranslator.getInstance().setColor(this.defaultColor, this.component, style.getFormat());
+		}
+
+		@Override
+		public void literal(@Nonnull final Literal literal) {
+			literal.renderParts(this);
+		}
+
+		/**
+		 * Add the text left as the last component.
+		 *
+		 * @return the components, never empty.
+		 */
+		List<Component> finish() {
+			this.components.add(this.component.message(this.text.toString()).build());
+			return Collections.unmodifiableList(this.components);
+		}
+	}
+
+	/**
+	 * Keeps what is written as segments, used to turn a gradient without placeholders into
+	 * plain text and colors when the template is compiled.
+	 */
+	static final class RecordingSink implements Sink {
+		private final List<TemplateSegment> segments;
+		private final StringBuilder text = new StringBuilder();
+
+		RecordingSink(@Nonnull final List<TemplateSegment> segments) {
+			this.segments = segments;
+		}
+
+		@Override
+		public void text(@Nonnull final String text) {
+			this.text.append(text);
+		}
+
+		@Override
+		public void text(final char letter) {
+			this.text.append(letter);
+		}
+
+		@Override
+		public void style(@Nonnull final Style style) {
+			this.flush();
+			this.segments.add(style);
+		}
+
+		@Override
+		public void literal(@Nonnull final Literal literal) {
+			literal.renderParts(this);
+		}
+
+		void flush() {
+			if (this.text.length() > 0) {
+				this.segments.add(new Text(this.text.toString()));
+				this.text.setLength(0);
+			}
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package org.broken.arrow.library.color;
+
+import com.google.gson.JsonObject;
+import org.broken.arrow.library.color.TemplateSegment.ComponentSink;
+import org.broken.arrow.library.color.TemplateSegment.SlotValues;
+import org.broken.arrow.library.color.TemplateSegment.SpigotSink;
+import org.broken.arrow.library.color.utility.CreateComponent;
+import org.broken.arrow.library.color.utility.PlaceholderSlots;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message compiled once by {@link TextTranslator#compile(String)}, so it can be rendered
+ * many times without parsing the colors again.
+ * <p>
+ * The message is split into segments: text, color codes, hex colors, gradients and the
+ * placeholder slots, written as <strong>{name}</strong> or <strong>{0}</strong>. Everything
+ * except the slots is translated when the template is compiled, so rendering only fills in the
+ * placeholder values and joins the parts. A gradient with a slot in it keeps the colors
+ * calculated for every length of the text, so the colors are only calculated once.
+ * </p>
+ * <p>
+ * The values are added as they are, the colors in a value are not translated. Use
+ * {@link TextTranslator#toSpigotFormat(String)} on the value first if it has colors. A slot
+ * right after a color code, like <strong>&amp;{color}</strong>, or inside a hex color, like
+ * <strong>&lt;#{color}&gt;</strong>, sets the color from the value.
+ * </p>
+ */
+public final class TextTemplate {
+
+	private final String raw;
+	private final String[] slots;
+	private final int[] slotIndexes;
+	private final TemplateSegment[] segments;
+	private final String spigotFormat;
+	private final List<Component> components;
+
+	private TextTemplate(final String raw, final String[] slots, final TemplateSegment[] segments) {
+		this.raw = raw;
+		this.slots = slots;
+		this.slotIndexes = new int[slots.length];
+		for (int i = 0; i < slots.length; i++)
+			this.slotIndexes[i] = PlaceholderSlots.parseIndex(slots[i]);
+		this.segments = segments;
+		if (slots.length == 0) {
+			this.spigotFormat = this.renderSpigot(TemplateSegment.NO_VALUES);
+			this.components = this.renderComponents(TemplateSegment.NO_VALUES);
+		} else {
+			this.spigotFormat = null;
+			this.components = null;
+		}
+	}
+
+	/**
+	 * Compile the message, use {@link TextTranslator#compile(String)} to get a cached template.
+	 *
+	 * @param raw the message with colors and placeholders.
+	 * @return the compiled template.
+	 */
+	@Nonnull
+	static TextTemplate compile(@Nonnull final String raw) {
+		final TemplateCompiler compiler = new TemplateCompiler(raw, true);
+		final List<TemplateSegment> segments = compiler.compile();
+		return new TextTemplate(raw, compiler.getSlotNames().toArray(new String[0]), segments.toArray(new TemplateSegment[0]));
+	}
+
+	/**
+	 * Render the template with the placeholder values set by index, so <strong>{0}</strong> is
+	 * replaced with the first value. Slots without a value are left as they are.
+	 *
+	 * @param values the placeholder values.
+	 * @return the message in the Spigot format.
+	 */
+	@Nonnull
+	public String toSpigotFormat(@Nullable final Object... values) {
+		if (this.spigotFormat != null)
+			return this.spigotFormat;
+		return this.renderSpigot(this.byIndex(values));
+	}
+
+	/**
+	 * Render the template with the placeholder values set by name, so <strong>{player}</strong>
+	 * is replaced with the value for the key {@code player}. Slots without a value are left as
+	 * they are.
+	 *
+	 * @param values the placeholder names and values.
+	 * @return the message in the Spigot format.
+	 */
+	@Nonnull
+	public String toSpigotFormat(@Nonnull final Map<String, ?> values) {
+		if (this.spigotFormat != null)
+			return this.spigotFormat;
+		return this.renderSpigot(this.byName(values));
+	}
+
+	/**
+	 * Create the json component for this message, with the placeholders left as they are.
+	 *
+	 * @return json object with the set colors.
+	 */
+	@Nonnull
+	public JsonObject toComponent() {
+		return CreateComponent.toJson(this.getComponents(TemplateSegment.NO_VALUES));
+	}
+
+	/**
+	 * Create the json component for this message, with the placeholder values set by index
+	 * like {@link #toSpigotFormat(Object...)}.
+	 *
+	 * @param values the placeholder values.
+	 * @return json object with the set colors.
+	 */
+	@Nonnull
+	public JsonObject toComponent(@Nullable final Object... values) {
+		return CreateComponent.toJson(this.getComponents(this.byIndex(values)));
+	}
+
+	/**
+	 * Create the json component for this message, with the placeholder values set by name
+	 * like {@link #toSpigotFormat(Map)}.
+	 *
+	 * @param values the placeholder names and values.
+	 * @return json object with the set colors.
+	 */
+	@Nonnull
+	public JsonObject toComponent(@Nonnull final Map<String, ?> values) {
+		return CreateComponent.toJson(this.getComponents(this.byName(values)));
+	}
+
+	/**
+	 * Create the json component for this message as a string, without creating a {@link JsonObject}.
+	 * The placeholders are left as they are.
+	 *
+	 * @return json string with the set colors.
+	 */
+	@Nonnull
+	public String toComponentJson() {
+		return CreateComponent.toJsonString(this.getComponents(TemplateSegment.NO_VALUES));
+	}
+
+	/**
+	 * Create the json component for this message as a string, without creating a {@link JsonObject}.
+	 * The placeholder values are set by index like {@link #toSpigotFormat(Object...)}.
+	 *
+	 * @param values the placeholder values.
+	 * @return json string with the set colors.
+	 */
+	@Nonnull
+	public String toComponentJson(@Nullable final Object... values) {
+		return CreateComponent.toJsonString(this.getComponents(this.byIndex(values)));
+	}
+
+	/**
+	 * Create the json component for this message as a string, without creating a {@link JsonObject}.
+	 * The placeholder values are set by name like {@link #toSpigotFormat(Map)}.
+	 *
+	 * @param values the placeholder names and values.
+	 * @return json string with the set colors.
+	 */
+	@Nonnull
+	public String toComponentJson(@Nonnull final Map<String, ?> values) {
+		return CreateComponent.toJsonString(this.getComponents(this.byName(values)));
+	}
+
+	/**
+	 * Check if this template has any placeholder slots.
+	 *
+	 * @return {@code true} if it has at least one slot.
+	 */
+	public boolean hasPlaceholders() {
+		return this.slots.length > 0;
+	}
+
+	/**
+	 * Retrieve the names of the placeholder slots, in the order they are set in the message.
+	 *
+	 * @return the slot names.
+	 */
+	@Nonnull
+	public List<String> getPlaceholders() {
+		final List<String> names = new ArrayList<>(this.slots.length);
+		Collections.addAll(names, this.slots);
+		return names;
+	}
+
+	/**
+	 * Retrieve the message this template was compiled from.
+	 *
+	 * @return the raw message.
+	 */
+	@Nonnull
+	public String getRaw() {
+		return raw;
+	}
+
+	private List<Component> getComponents(final SlotValues values) {
+		if (this.components != null)
+			return this.components;
+		return this.renderComponents(values);
+	}
+
+	private String renderSpigot(final SlotValues values) {
+		final SpigotSink sink = new SpigotSink(this.raw.length() + 16);
+		for (TemplateSegment segment : this.segments)
+			segment.render(sink, values);
+		return sink.toString();
+	}
+
+	private List<Component> renderComponents(final SlotValues values) {
+		final ComponentSink sink = new ComponentSink(null);
+		for (TemplateSegment segment : this.segments)
+			segment.render(sink, values);
+		return sink.finish();
+	}
+
+	private SlotValues byIndex(@Nullable final Object[] values) {
+		if (values == null || values.length == 0)
+			return TemplateSegment.NO_VALUES;
+		return slot -> {
+			final int index = this.slotIndexes[slot];
+			return index >= 0 && index < values.length ? String.valueOf(values[index]) : null;
+		};
+	}
+
+	private SlotValues byName(@Nonnull final Map<String, ?> values) {
+		return slot -> {
+			final String name = this.slots[slot];
+			return values.containsKey(name) ? String.valueOf(values.get(name)) : null;
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "TextTemplate{" +
+				"raw='" + raw + '\'' +
+				", placeholders=" + slots.length +
+				", segments=" + segments.length +
+				'}';
+	}
+}
@@ -1,12 +1,14 @@
 package org.broken.arrow.library.color;
 
 import com.google.gson.JsonObject;
-import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
 import org.broken.arrow.library.color.Component.Builder;
 import org.broken.arrow.library.color.utility.CreateComponent;
 import org.broken.arrow.library.color.utility.CreateFromLegacyText;
+import org.broken.arrow.library.color.utility.LruCache;
 import org.broken.arrow.library.color.utility.TextGradientUtil;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,12 +30,22 @@ import java.util.regex.Pattern;
  * Provides methods to translate these formats into Spigot-compatible color codes or
  * into Minecraft component JSON objects suitable for vanilla Minecraft message serialization.
  * </p>
+ * <p>
+ * The translated messages are cached, so the same message is only parsed once. The cache keeps
+ * the {@link #setCacheSize(int) set amount} of messages and removes the least recently used first.
+ * Use {@link #compile(String)} for messages with placeholders.
+ * </p>
  */
 public final class TextTranslator {
-	private static final Pattern HEX_PATTERN = Pattern.compile("(?<!\\\\\\\\)(<#[a-fA-F0-9]{6}>)|(?<!\\\\\\\\)(<#[a-fA-F0-9]{3}>)");
+	static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
 	private static final Pattern GRADIENT_PATTERN = Pattern.compile("(<#[a-fA-F0-9]{6}:#[a-fA-F0-9]{6}>)");
 	private static final Pattern url = Pattern.compile("^(?:(https?)://)?([-\\w_.]{2,}\\.[a-z]{2,4})(/\\S*)?$");
+	private static final int DEFAULT_CACHE_SIZE = 512;
 	private static final TextTranslator instance = new TextTranslator();
+	private final LruCache<String, String> spigotFormatCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+	private final LruCache<String, List<Component>> componentCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+	private final LruCache<String, TextTemplate> templateCache = new LruCache<>(DEFAULT_CACHE_SIZE);
+	private final LruCache<String, String> gradientCache = new LruCache<>(DEFAULT_CACHE_SIZE);
 
 	/**
 	 * Get the instance of this class.
@@ -60,7 +72,39 @@ public final class TextTranslator {
 	 * @return spigot compatible translation.
 	 */
 	public static String toSpigotFormat(String message) {
-		return getInstance().spigotFormat(message);
+		final TextTranslator translator = getInstance();
+		if (message == null)
+			return translator.spigotFormat(null);
+		return translator.spigotFormatCache.computeIfAbsent(message, translator::spigotFormat);
+	}
+
+	/**
+	 * Compile the message once, so it can be rendered many times with different placeholder
+	 * values without parsing the colors again. The placeholders are written as
+	 * <strong>{name}</strong> or <strong>{0}</strong>, and the colors use the same format as
+	 * {@link #toSpigotFormat(String)}.
+	 * <p>
+	 * The compiled templates are cached by the message.
+	 *
+	 * @param message your string message.
+	 * @return the compiled template.
+	 */
+	public static TextTemplate compile(String message) {
+		return getInstance().templateCache.computeIfAbsent(message, TextTemplate::compile);
+	}
+
+	/**
+	 * Set how many translated messages and compiled templates to keep in the cache.
+	 * Set it to 0 to turn off the cache.
+	 *
+	 * @param cacheSize the amount of messages to keep for every output format.
+	 */
+	public static void setCacheSize(int cacheSize) {
+		final TextTranslator translator = getInstance();
+		translator.spigotFormatCache.setMaximumSize(cacheSize);
+		translator.componentCache.setMaximumSize(cacheSize);
+		translator.templateCache.setMaximumSize(cacheSize);
+		translator.gradientCache.setMaximumSize(cacheSize);
 	}
 
 	/**
@@ -118,8 +162,63 @@ public final class TextTranslator {
 	 * @return json object with the set colors.
 	 */
 	private JsonObject componentFormat(String message, String defaultColor) {
-		CreateComponent createComponent = new CreateComponent(this,message);
-		return createComponent.componentFormat(defaultColor);
+		return CreateComponent.toJson(this.getComponents(message, defaultColor));
+	}
+
+	/**
+	 * Same as {@link #toComponent(String, String)}, but the json is written straight to a string.
+	 * Use this when you need the json as text, like for the chat serializer, as no
+	 * {@link JsonObject} is created.
+	 *
+	 * @param message      your string message.
+	 * @param defaultColor set default color when colors are not set in the message.
+	 * @return the json string with the set colors.
+	 */
+	public static String toComponentJson(String message, String defaultColor) {
+		return CreateComponent.toJsonString(getInstance().getComponents(message, defaultColor));
+	}
+
+	/**
+	 * Same as {@link #toComponent(String)}, but the json is written straight to a string.
+	 * Use this when you need the json as text, like for the chat serializer, as no
+	 * {@link JsonObject} is created.
+	 *
+	 * @param message your string message.
+	 * @return the json string with the set colors.
+	 */
+	public static String toComponentJson(String message) {
+		return toComponentJson(message, null);
+	}
+
+	/**
+	 * Translate the message to BungeeCord components, that you can send with
+	 * {@code player.spigot().sendMessage(components)}. The colors are set the same
+	 * way as {@link #toComponent(String, String)}, but no json is created.
+	 *
+	 * @param message      your string message.
+	 * @param defaultColor set default color when colors are not set in the message.
+	 * @return the components with the set colors.
+	 */
+	public static BaseComponent[] toBaseComponents(String message, String defaultColor) {
+		return CreateComponent.toBaseComponents(getInstance().getComponents(message, defaultColor));
+	}
+
+	/**
+	 * Translate the message to BungeeCord components, that you can send with
+	 * {@code player.spigot().sendMessage(components)}.
+	 *
+	 * @param message your string message.
+	 * @return the components with the set colors.
+	 */
+	public static BaseComponent[] toBaseComponents(String message) {
+		return toBaseComponents(message, null);
+	}
+
+	private List<Component> getComponents(String message, String defaultColor) {
+		if (message == null)
+			return new CreateComponent(this, null).compile(defaultColor);
+		final String key = (defaultColor == null ? "" : defaultColor) + '\u0000' + message;
+		return this.componentCache.computeIfAbsent(key, k -> new CreateComponent(this, message).compile(defaultColor));
 	}
 
 
@@ -133,19 +232,96 @@ public final class TextTranslator {
 	 * @return spigot compatible translation.
 	 */
 
-	private String spigotFormat(String message) {
-		String messageCopy = checkStringForGradient(message);
-		Matcher matcher = HEX_PATTERN.matcher(messageCopy);
-
-		while (matcher.find()) {
-			String match = matcher.group(0);
-			int firstPos = match.indexOf("#");
-			if (match.length() <= 9)
-				messageCopy = messageCopy.replace(match, "&x&" + match.charAt(firstPos + 1) + "&" + match.charAt(firstPos + 1) + "&" + match.charAt(firstPos + 2) + "&" + match.charAt(firstPos + 2) + "&" + match.charAt(firstPos + 3) + "&" + match.charAt(firstPos + 3));
-			else
-				messageCopy = messageCopy.replace(match, "&x&" + match.charAt(firstPos + 1) + "&" + match.charAt(firstPos + 2) + "&" + match.charAt(firstPos + 3) + "&" + match.charAt(firstPos + 4) + "&" + match.charAt(firstPos + 5) + "&" + match.charAt(firstPos + 6));
+	String spigotFormat(String message) {
+		return translateColorCodes(checkStringForGradient(message));
+	}
+
+	/**
+	 * Translates the hex colors and the alternate color codes in one pass over the message.
+	 * <p>
+	 * Every <strong>&lt;#RRGGBB&gt;</strong> or <strong>&lt;#RGB&gt;</strong> is written as
+	 * <strong>&#167;x</strong> followed by its first three digits, each doubled (this is how hex
+	 * colors always have been translated). A hex color with two backslashes in front is left as
+	 * it is, unless the same hex color is also set somewhere else in the message without them.
+	 * After that, every <strong>&amp;</strong> followed by a color code is translated to
+	 * <strong>&#167;</strong> and the code is set to lower case, like
+	 * {@link ChatColors#translateAlternateColorCodes(char, String)}.
+	 * </p>
+	 *
+	 * @param message the message with the gradients already translated.
+	 * @return the message with Spigot color codes.
+	 */
+	private static String translateColorCodes(final String message) {
+		final char[] chars = message.toCharArray();
+		final int length = chars.length;
+		final StringBuilder builder = new StringBuilder(length + 32);
+		int i = 0;
+		while (i < length) {
+			final char letter = chars[i];
+			if (letter == '<') {
+				final int hexLength = getHexLength(chars, i);
+				if (hexLength > 0 && (!isEscaped(chars, i) || hasUnescapedCopy(chars, i, hexLength))) {
+					builder.append(ChatColors.COLOR_CHAR).append('x');
+					for (int digit = i + 2; digit < i + 5; digit++) {
+						final char hex = Character.toLowerCase(chars[digit]);
+						builder.append(ChatColors.COLOR_CHAR).append(hex).append(ChatColors.COLOR_CHAR).append(hex);
+					}
+					i += hexLength;
+					continue;
+				}
+			} else if (letter == ChatColors.COLOR_AMPERSAND && i + 1 < length && COLOR_CODES.indexOf(chars[i + 1]) >= 0) {
+				builder.append(ChatColors.COLOR_CHAR).append(Character.toLowerCase(chars[i + 1]));
+				i += 2;
+				continue;
+			}
+			builder.append(letter);
+			i++;
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Retrieve the length of the hex color starting at the index.
+	 *
+	 * @param chars the message.
+	 * @param start the index of the <strong>&lt;</strong>.
+	 * @return the length of <strong>&lt;#RRGGBB&gt;</strong> or <strong>&lt;#RGB&gt;</strong>, or 0 if it is not a hex color.
+	 */
+	static int getHexLength(final char[] chars, final int start) {
+		if (chars[start] != '<' || start + 5 >= chars.length || chars[start + 1] != '#')
+			return 0;
+		int digits = 0;
+		while (digits < 6 && start + 2 + digits < chars.length && isHexDigit(chars[start + 2 + digits]))
+			digits++;
+		if (digits == 6 && start + 8 < chars.length && chars[start + 8] == '>')
+			return 9;
+		if (digits >= 3 && chars[start + 5] == '>')
+			return 6;
+		return 0;
+	}
+
+	static boolean isHexDigit(final char letter) {
+		return (letter >= '0' && letter <= '9') || (letter >= 'a' && letter <= 'f') || (letter >= 'A' && letter <= 'F');
+	}
+
+	static boolean isEscaped(final char[] chars, final int start) {
+		return start >= 2 && chars[start - 1] == '\\' && chars[start - 2] == '\\';
+	}
+
+	/**
+	 * Check if the same hex color is set without the two backslashes somewhere in the message,
+	 * in that case the escaped one is translated too.
+	 */
+	static boolean hasUnescapedCopy(final char[] chars, final int start, final int hexLength) {
+		for (int i = 0; i + hexLength <= chars.length; i++) {
+			if (i == start || chars[i] != '<' || isEscaped(chars, i) || getHexLength(chars, i) != hexLength)
+				continue;
+			boolean same = true;
+			for (int offset = 1; offset < hexLength && same; offset++)
+				same = chars[i + offset] == chars[start + offset];
+			if (same) return true;
 		}
-		return ChatColor.translateAlternateColorCodes('&', messageCopy);
+		return false;
 	}
 
 	/**
@@ -161,10 +337,21 @@ public final class TextTranslator {
 	 *  If you not add this it will have even balance between colors.</li>
 	 * </ul>
 	 *
+	 * <p>
+	 * The text with the gradients applied is cached by the text, so the same gradient
+	 * is only parsed once. Text without gradients is returned as it is.
+	 * </p>
+	 *
 	 * @param text to check.
 	 * @return the message translated if has any gradients or untouched.
 	 */
 	public String checkStringForGradient(final String text) {
+		if (text == null || !hasAnyGradient(text))
+			return text;
+		return this.gradientCache.computeIfAbsent(text, this::convertGradients);
+	}
+
+	private String convertGradients(final String text) {
 		String messageCopy = text;
 		GradientType type = null;
 		TextGradientUtil textGradientUtil;
@@ -189,6 +376,20 @@ public final class TextTranslator {
 		return messageCopy;
 	}
 
+	private static boolean hasAnyGradient(final String text) {
+		return text.contains(GradientType.HSV_GRADIENT_PATTERN.getType()) || hasGradient(text);
+	}
+
+	/**
+	 * Check if the message has any gradients, that needs the whole text to spread the colors.
+	 *
+	 * @param text to check.
+	 * @return {@code true} if it contains a gradient.
+	 */
+	private static boolean hasGradient(final String text) {
+		return text.contains(GradientType.SIMPLE_GRADIENT_PATTERN.getType()) || GRADIENT_PATTERN.matcher(text).find();
+	}
+
 	/**
 	 * Converts a legacy Spigot formatted string to a JSON object, suitable for use with Minecraft's chat serializer.
 	 * Most usefully for Minecraft version 1.16 and newer, when you want to use gradients or hexadecimal colors,
@@ -2,11 +2,15 @@ package org.broken.arrow.library.color.utility;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import net.md_5.bungee.api.chat.BaseComponent;
 import org.broken.arrow.library.color.ChatColors;
 import org.broken.arrow.library.color.Component;
 import org.broken.arrow.library.color.TextTranslator;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.broken.arrow.library.color.utility.StringUtility.checkIfColor;
 
@@ -50,8 +54,22 @@ public class CreateComponent {
      * @return the constructed chat component as a {@link JsonObject}
      */
     public JsonObject componentFormat(String defaultColor) {
+        return toJson(this.compile(defaultColor));
+    }
+
+    /**
+     * Parses the stored chat message into the components it consists of, one component for
+     * every part of the text with its own color or formatting. The components are immutable,
+     * so the result can be cached and turned into json with {@link #toJson(List)} every time
+     * it is needed.
+     *
+     * @param defaultColor the default text color name to fall back to if none is specified
+     * @return the parsed components, never empty.
+     */
+    @Nonnull
+    public List<Component> compile(String defaultColor) {
         int i = 0;
-        JsonArray jsonArray = new JsonArray();
+        List<Component> components = new ArrayList<>();
         Component.Builder component = new Component.Builder();
         this.text = textTranslator.checkStringForGradient(this.text);
 
@@ -78,7 +96,7 @@ public class CreateComponent {
             }
 
             if (checkChar) {
-                i += processColorCode( builder, component, jsonArray, defaultColor, i, hex);
+                i += processColorCode( builder, component, components, defaultColor, i, hex);
                 hex.setLength(0);
                 continue;
             }
@@ -86,9 +104,66 @@ public class CreateComponent {
             i++;
         }
 
-        finalizeComponent(builder, component, jsonArray);
+        finalizeComponent(builder, component, components);
+
+        return Collections.unmodifiableList(components);
+    }
+
+    /**
+     * Builds the final JSON object from the parsed components, either as a single component
+     * or as a composite with an {@code extra} array.
+     *
+     * @param components the components from {@link #compile(String)}
+     * @return the final JSON object
+     */
+    @Nonnull
+    public static JsonObject toJson(@Nonnull final List<Component> components) {
+        if (components.size() > 1) {
+            JsonArray jsonArray = new JsonArray();
+            for (Component component : components)
+                jsonArray.add(component.toJson());
+            JsonObject jsonObject = new JsonObject();
+            jsonObject.add("extra", jsonArray);
+            jsonObject.addProperty("text", "");
+            return jsonObject;
+        }
+        return components.get(0).toJson();
+    }
+
+    /**
+     * Writes the parsed components as a json string, the same as {@code toJson(components).toString()}
+     * but without creating any {@link JsonObject}.
+     *
+     * @param components the components from {@link #compile(String)}
+     * @return the json string
+     */
+    @Nonnull
+    public static String toJsonString(@Nonnull final List<Component> components) {
+        final StringBuilder builder = new StringBuilder(components.size() * 48 + 16);
+        if (components.size() > 1) {
+            builder.append("{\"extra\":[");
+            for (int i = 0; i < components.size(); i++) {
+                if (i > 0) builder.append(',');
+                components.get(i).appendJson(builder);
+            }
+            return builder.append("],\"text\":\"\"}").toString();
+        }
+        return components.get(0).appendJson(builder).toString();
+    }
 
-        return buildJsonObject(jsonArray, component);
+    /**
+     * Converts the parsed components to BungeeCord components, one for every part of the text.
+     * A new array is created every time, as the BungeeCord components can be modified.
+     *
+     * @param components the components from {@link #compile(String)}
+     * @return the BungeeCord components
+     */
+    @Nonnull
+    public static BaseComponent[] toBaseComponents(@Nonnull final List<Component> components) {
+        final BaseComponent[] baseComponents = new BaseComponent[components.size()];
+        for (int i = 0; i < baseComponents.length; i++)
+            baseComponents[i] = components.get(i).toBaseComponent();
+        return baseComponents;
     }
 
     /**
@@ -145,13 +220,13 @@ public class CreateComponent {
      *
      * @param builder the current text buffer
      * @param component the current component builder
-     * @param jsonArray the array of JSON components
+     * @param components the parsed components
      * @param defaultColor the default color name
      * @param i the current parsing index
      * @param hex the hex color buffer, if present
      * @return how many characters to advance in the parsing loop
      */
-    private int processColorCode( final StringBuilder builder,final  Component.Builder component,final  JsonArray jsonArray,
+    private int processColorCode( final StringBuilder builder,final  Component.Builder component,final  List<Component> components,
                                   final  String defaultColor,final int i,final StringBuilder hex) {
         final int index = i + 1;
         if (index >= this.text.length()) return index;
@@ -165,7 +240,7 @@ public class CreateComponent {
         if (format == null) return index;
 
         if (builder.length() > 0) {
-            jsonArray.add(buildComponentToJson(builder, component));
+            components.add(buildComponent(builder, component));
         }
         textTranslator.setColor(defaultColor, component, format);
         return isHex  ? format.length() + 2 : 1;
@@ -186,45 +261,27 @@ public class CreateComponent {
     }
 
     /**
-     * Finalizes the current text buffer into a JSON component object.
+     * Finalizes the current text buffer into a component.
      *
      * @param builder the text buffer
      * @param component the component builder
-     * @return the built JSON component
+     * @return the built component
      */
-    private JsonObject buildComponentToJson(StringBuilder builder, Component.Builder component) {
+    private Component buildComponent(StringBuilder builder, Component.Builder component) {
         component.message(builder.toString());
         builder.setLength(0);
-        return component.build().toJson();
+        return component.build();
     }
 
     /**
-     * Adds the remaining text in the buffer as the last component to the array.
+     * Adds the remaining text in the buffer as the last component.
      *
      * @param builder the remaining text buffer
      * @param component the component builder
-     * @param jsonArray the array of JSON components
+     * @param components the parsed components
      */
-    private void finalizeComponent(StringBuilder builder, Component.Builder component, JsonArray jsonArray) {
+    private void finalizeComponent(StringBuilder builder, Component.Builder component, List<Component> components) {
         component.message(builder.toString());
-        jsonArray.add(component.build().toJson());
-    }
-
-    /**
-     * Builds the final JSON object to return, either as a single component
-     * or as a composite with an {@code extra} array.
-     *
-     * @param jsonArray the array of components
-     * @param component the last component builder
-     * @return the final JSON object
-     */
-    private JsonObject buildJsonObject(JsonArray jsonArray, Component.Builder component) {
-        if (jsonArray.size() > 1) {
-            JsonObject jsonObject = new JsonObject();
-            jsonObject.add("extra", jsonArray);
-            jsonObject.addProperty("text", "");
-            return jsonObject;
-        }
-        return component.build().toJson();
+        components.add(component.build());
     }
 }
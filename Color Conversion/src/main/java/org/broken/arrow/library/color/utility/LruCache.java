@@ -0,0 +1,90 @@
+package org.broken.arrow.library.color.utility;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A small thread-safe cache that keeps at most the set amount of entries. When it is full,
+ * the least recently used entry is removed.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private int maximumSize;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize the maximum amount of entries, 0 or below turns off the cache.
+     */
+    public LruCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieve the value for the key, or compute and cache it if it is missing.
+     * <p>
+     * The value is computed outside the lock, so two threads can compute the same
+     * value at the same time. This is fine as long as the function has no side effects.
+     *
+     * @param key      the key.
+     * @param function computes the value if it is not cached.
+     * @return the cached or computed value.
+     */
+    public V computeIfAbsent(@Nonnull final K key, @Nonnull final Function<? super K, ? extends V> function) {
+        synchronized (this) {
+            final V value = this.entries.get(key);
+            if (value != null)
+                return value;
+        }
+        final V value = function.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (this.maximumSize > 0)
+                    this.entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Retrieve the amount of cached entries.
+     *
+     * @return the amount of entries.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Set the maximum amount of entries. The least recently used entries are
+     * removed if there are more entries than the new size.
+     *
+     * @param maximumSize the maximum amount of entries, 0 or below turns off the cache.
+     */
+    public synchronized void setMaximumSize(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        while (!this.entries.isEmpty() && this.entries.size() > Math.max(0, maximumSize))
+            this.entries.remove(this.entries.keySet().iterator().next());
+    }
+}
@@ -0,0 +1,76 @@
+package org.broken.arrow.library.color.utility;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Finds the placeholder slots in a text, written as <strong>{name}</strong> or <strong>{0}</strong>.
+ * <p>
+ * Used by every compiled template, so a placeholder is found the same way no matter which
+ * template renders the text. A slot name can have any character except whitespace and braces.
+ * </p>
+ */
+public final class PlaceholderSlots {
+
+    private PlaceholderSlots() {
+    }
+
+    /**
+     * Split the text on the slots.
+     *
+     * @param raw       the text with placeholders.
+     * @param textParts the list the text between the slots is added to, it always gets one more
+     *                  element than {@code slotNames}.
+     * @param slotNames the list the slot names, without the braces, are added to.
+     */
+    public static void split(@Nonnull final String raw, @Nonnull final List<String> textParts, @Nonnull final List<String> slotNames) {
+        int start = 0;
+        int open = raw.indexOf('{');
+        while (open >= 0) {
+            final int close = findSlotEnd(raw, open);
+            if (close < 0) {
+                open = raw.indexOf('{', open + 1);
+                continue;
+            }
+            textParts.add(raw.substring(start, open));
+            slotNames.add(raw.substring(open + 1, close));
+            start = close + 1;
+            open = raw.indexOf('{', start);
+        }
+        textParts.add(raw.substring(start));
+    }
+
+    /**
+     * Find the end of the slot that starts at {@code open}.
+     *
+     * @param raw  the text.
+     * @param open the index of the opening brace.
+     * @return the index of the closing brace, or -1 if it is not a slot.
+     */
+    public static int findSlotEnd(@Nonnull final String raw, final int open) {
+        for (int i = open + 1; i < raw.length(); i++) {
+            final char letter = raw.charAt(i);
+            if (letter == '}')
+                return i > open + 1 ? i : -1;
+            if (letter == '{' || Character.isWhitespace(letter))
+                return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Parse the slot name as an index, like <strong>{0}</strong>.
+     *
+     * @param slot the slot name.
+     * @return the index, or -1 if the name is not a number.
+     */
+    public static int parseIndex(@Nonnull final String slot) {
+        int index = 0;
+        for (int i = 0; i < slot.length(); i++) {
+            final char letter = slot.charAt(i);
+            if (letter < '0' || letter > '9' || index > 100_000) return -1;
+            index = index * 10 + (letter - '0');
+        }
+        return index;
+    }
+}
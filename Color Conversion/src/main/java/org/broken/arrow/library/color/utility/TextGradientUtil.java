@@ -26,12 +26,19 @@ import static org.broken.arrow.library.color.utility.StringUtility.hexToRgb;
  * Utility class for working with text gradients.
  * This class provides methods to split text based on gradient patterns and to apply various types of gradient effects
  * to text, including RGB and HSV gradients.
+ * <p>
+ * The colors for every letter of a gradient are cached by the two colors, the gradient type and the
+ * length of the text, so the same gradient is only calculated once. Only gradients calculated with the
+ * default {@link GradientInterpolation} are cached, set the size with {@link #setPaletteCacheSize(int)}.
+ * </p>
  */
 public class TextGradientUtil {
 	private static final Pattern GRADIENT_PATTERN = Pattern.compile("(<#[a-fA-F0-9]{6}:#[a-fA-F0-9]{6}>)");
 	private final GradientType type;
 	private final String text;
 	private boolean firstMatch;
+	private static final Interpolator DEFAULT_INTERPOLATOR = new GradientInterpolation();
+	private static final LruCache<Palette, String[]> PALETTE_CACHE = new LruCache<>(256);
 	private static String deliminator = "_,_";
 
 	/**
@@ -189,7 +196,7 @@ public class TextGradientUtil {
 	 * @return a string with the colors set.
 	 */
 	public String multiRgbGradient(GradientType type, String str, Color[] colors, @Nullable Double[] portions) {
-		return multiRgbGradient(type, str, colors, portions, new GradientInterpolation());
+		return multiRgbGradient(type, str, colors, portions, DEFAULT_INTERPOLATOR);
 	}
 
 	/**
@@ -237,6 +244,49 @@ public class TextGradientUtil {
 		return builder.toString();
 	}
 
+	/**
+	 * Retrieve the color for every letter of a gradient, like &lt;#D16BA5&gt;, without applying it to
+	 * any text. The colors are spread the same way as {@link #multiRgbGradient(GradientType, String, Color[], Double[])},
+	 * so a compiled message can color its letters with it.
+	 *
+	 * @param colors   the list of colors to set, at least two.
+	 * @param portions amount of each color to set, or {@code null} to spread the colors evenly.
+	 * @param length   the amount of letters.
+	 * @return the color for every letter.
+	 */
+	public String[] getGradientPalette(@Nonnull final Color[] colors, @Nullable final Double[] portions, final int length) {
+		Preconditions.checkArgument(colors.length >= 2, "A gradient needs at least two colors.");
+		final Double[] p;
+		if (portions == null || portions.length != colors.length - 1) {
+			p = new Double[colors.length - 1];
+			Arrays.fill(p, 1 / (double) p.length);
+		} else {
+			p = portions;
+		}
+		final boolean hsb = this.type == GradientType.HSV_GRADIENT_PATTERN;
+		final String[] palette = new String[length];
+		int strIndex = 0;
+		for (int i = 0; i < colors.length - 1 && strIndex < length; i++) {
+			final ColorInterpolator colorInterpolator = hsb ? this.getHSBGradient(colors[i], colors[i + 1]) : this.getRBGGradient(colors[i], colors[i + 1]);
+			final String[] part = getPalette(colorInterpolator, DEFAULT_INTERPOLATOR, (int) (p[i] * length));
+			System.arraycopy(part, 0, palette, strIndex, Math.min(part.length, length - strIndex));
+			strIndex += p[i] * length;
+		}
+		if (strIndex < length) {
+			final Color last = colors[colors.length - 1];
+			final ColorInterpolator colorInterpolator = hsb ? this.getHSBGradient(last, last) : this.getRBGGradient(last, last);
+			final String[] part = createPalette(colorInterpolator, (from, to, max) -> DEFAULT_INTERPOLATOR.quadratic(from, to, length, true), length - strIndex);
+			System.arraycopy(part, 0, palette, strIndex, part.length);
+		}
+		// The portions are rounded down, give a letter between two parts the color before it.
+		for (int i = 1; i < length; i++)
+			if (palette[i] == null)
+				palette[i] = palette[i - 1];
+		if (length > 0 && palette[0] == null)
+			palette[0] = "<" + convertColorToHex(colors[0]) + ">";
+		return palette;
+	}
+
 	private void setMultiGradient(final GradientType type,Interpolator interpolator, final String str, final Color[] colors, final StringBuilder builder, final int strIndex) {
 		if (strIndex < str.length()) {
 			if (type == GradientType.SIMPLE_GRADIENT_PATTERN)
@@ -260,7 +310,7 @@ public class TextGradientUtil {
 	 * @return The string with the gradient colors applied.
 	 */
 	public String applyGradient(String str, @Nonnull ColorInterpolator colorInterpolator) {
-		return this.applyGradient(str, colorInterpolator, new GradientInterpolation());
+		return this.applyGradient(str, colorInterpolator, DEFAULT_INTERPOLATOR);
 	}
 
 	/**
@@ -272,13 +322,9 @@ public class TextGradientUtil {
 	 * @return The string with the gradient colors applied.
 	 */
 	public String applyGradient(String str, @Nonnull ColorInterpolator colorInterpolator, Interpolator interpolator) {
-		// interpolate each component separately
-		final double[] red = colorInterpolator.getRedColors(interpolator, str.length());
-		final double[] green = colorInterpolator.getGreenColors(interpolator, str.length());
-		final double[] blue = colorInterpolator.getBlueColors(interpolator, str.length());
+		final String[] palette = getPalette(colorInterpolator, interpolator, str.length());
 
-
-		final StringBuilder builder = new StringBuilder();
+		final StringBuilder builder = new StringBuilder(str.length() * 10);
 		final char[] letters = str.toCharArray();
 		// create a string that matches the input-string but has
 		// the different color applied to each char
@@ -292,14 +338,42 @@ public class TextGradientUtil {
 				continue;
 			}
 
-			final String stepColor = colorInterpolator.apply((int) Math.round(red[i]), (int) Math.round(green[i]), (int) Math.round(blue[i]));
-			boolean isEmpty = letter == ' ' && lastDecoration.isEmpty();
-
-			builder.append(isEmpty ? "" : "<").append(isEmpty ? "" : stepColor).append(isEmpty ? "" : ">").append(lastDecoration).append(letter);
+			if (letter != ' ' || !lastDecoration.isEmpty())
+				builder.append(palette[i]);
+			builder.append(lastDecoration).append(letter);
 		}
 		return builder.toString();
 	}
 
+	/**
+	 * Retrieve the hex color for every letter, like &lt;#D16BA5&gt;. The colors are cached when both the
+	 * color interpolator and the interpolator are the default ones from this class.
+	 *
+	 * @param colorInterpolator The color interpolator providing the gradient colors.
+	 * @param interpolator      The interpolator for color calculation.
+	 * @param length            the length of the text.
+	 * @return the colors for every index in the text.
+	 */
+	private static String[] getPalette(@Nonnull final ColorInterpolator colorInterpolator, final Interpolator interpolator, final int length) {
+		if (colorInterpolator instanceof GradientColors && interpolator != null && interpolator.getClass() == GradientInterpolation.class) {
+			final GradientColors gradientColors = (GradientColors) colorInterpolator;
+			return PALETTE_CACHE.computeIfAbsent(new Palette(gradientColors, length), key -> createPalette(colorInterpolator, interpolator, length));
+		}
+		return createPalette(colorInterpolator, interpolator, length);
+	}
+
+	private static String[] createPalette(final ColorInterpolator colorInterpolator, final Interpolator interpolator, final int length) {
+		// interpolate each component separately
+		final double[] red = colorInterpolator.getRedColors(interpolator, length);
+		final double[] green = colorInterpolator.getGreenColors(interpolator, length);
+		final double[] blue = colorInterpolator.getBlueColors(interpolator, length);
+
+		final String[] palette = new String[length];
+		for (int i = 0; i < length; i++)
+			palette[i] = "<" + colorInterpolator.apply((int) Math.round(red[i]), (int) Math.round(green[i]), (int) Math.round(blue[i])) + ">";
+		return palette;
+	}
+
 	private String getColorCode(String lastDecoration, final char decoration) {
 		if (decoration == 'k')
 			lastDecoration = "&k";
@@ -357,7 +431,7 @@ public class TextGradientUtil {
 	 * @return The color interpolator for the RGB gradient.
 	 */
 	public ColorInterpolator getRBGGradient(Color from, Color to) {
-		return new ColorInterpolator() {
+		return new GradientColors(from.getRGB(), to.getRGB(), false) {
 			@Override
 			public double[] getRedColors(@Nonnull final Interpolator interpolator, final int stringLength) {
 				return interpolator.interpolate(from.getRed(), to.getRed(), stringLength);
@@ -391,7 +465,7 @@ public class TextGradientUtil {
 		final float[] hsvFrom = Color.RGBtoHSB(from.getRed(), from.getGreen(), from.getBlue(), null);
 		final float[] hsvTo = Color.RGBtoHSB(to.getRed(), to.getGreen(), to.getBlue(), null);
 
-		return new ColorInterpolator() {
+		return new GradientColors(from.getRGB(), to.getRGB(), true) {
 			@Override
 			public double[] getRedColors(@Nonnull final Interpolator interpolator, final int stringLength) {
 				return interpolator.interpolate(hsvFrom[0], hsvTo[0], stringLength);
@@ -424,4 +498,60 @@ public class TextGradientUtil {
 		TextGradientUtil.deliminator = deliminator;
 	}
 
+	/**
+	 * Set how many gradients to keep in the cache. Set it to 0 to turn off the cache.
+	 *
+	 * @param cacheSize the amount of gradients to keep.
+	 */
+	public static void setPaletteCacheSize(final int cacheSize) {
+		PALETTE_CACHE.setMaximumSize(cacheSize);
+	}
+
+	/**
+	 * The color interpolators created by this class, they keep the colors so the
+	 * calculated gradient can be cached.
+	 */
+	private abstract static class GradientColors implements ColorInterpolator {
+		private final int from;
+		private final int to;
+		private final boolean hsb;
+
+		private GradientColors(final int from, final int to, final boolean hsb) {
+			this.from = from;
+			this.to = to;
+			this.hsb = hsb;
+		}
+	}
+
+	private static final class Palette {
+		private final int from;
+		private final int to;
+		private final boolean hsb;
+		private final int length;
+
+		private Palette(final GradientColors colors, final int length) {
+			this.from = colors.from;
+			this.to = colors.to;
+			this.hsb = colors.hsb;
+			this.length = length;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Palette)) return false;
+			final Palette palette = (Palette) o;
+			return from == palette.from && to == palette.to && hsb == palette.hsb && length == palette.length;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = from;
+			result = 31 * result + to;
+			result = 31 * result + (hsb ? 1 : 0);
+			result = 31 * result + length;
+			return result;
+		}
+	}
+
 }
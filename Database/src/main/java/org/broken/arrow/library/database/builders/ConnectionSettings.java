@@ -13,6 +13,10 @@ public final class ConnectionSettings {
 	private final String user;
 	private final String password;
 	private final String query;
+	private String journalMode = "WAL";
+	private String synchronous = "NORMAL";
+	private long mmapSize;
+	private int cacheSize;
 
 	/**
 	 * Constructs a ConnectionSettings object for file-based databases. This constructor should be used
@@ -111,4 +115,82 @@ public final class ConnectionSettings {
 		return query;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns the journal mode used by file-based databases like SQLite.
+	 * @return the journal mode or {@code null} to use the driver default.
+	 */
+	public String getJournalMode() {
+		return journalMode;
+	}
+
+	/**
+	 * Sets the journal mode used by file-based databases like SQLite. The default is {@code WAL},
+	 * which lets readers work while a row is written and makes writes faster.
+	 * @param journalMode the journal mode, like {@code WAL}, {@code DELETE} or {@code TRUNCATE},
+	 *                    or {@code null} to use the driver default.
+	 * @return this instance for chaining.
+	 */
+	public ConnectionSettings setJournalMode(final String journalMode) {
+		this.journalMode = journalMode;
+		return this;
+	}
+
+	/**
+	 * Returns the synchronous mode used by file-based databases like SQLite.
+	 * @return the synchronous mode or {@code null} to use the driver default.
+	 */
+	public String getSynchronous() {
+		return synchronous;
+	}
+
+	/**
+	 * Sets the synchronous mode used by file-based databases like SQLite. The default is
+	 * {@code NORMAL}, which is safe together with the {@code WAL} journal mode.
+	 * @param synchronous the synchronous mode, like {@code OFF}, {@code NORMAL} or {@code FULL},
+	 *                    or {@code null} to use the driver default.
+	 * @return this instance for chaining.
+	 */
+	public ConnectionSettings setSynchronous(final String synchronous) {
+		this.synchronous = synchronous;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum amount of bytes of the database file mapped into memory.
+	 * @return the mmap size or zero to use the driver default.
+	 */
+	public long getMmapSize() {
+		return mmapSize;
+	}
+
+	/**
+	 * Sets the maximum amount of bytes of the database file mapped into memory,
+	 * for file-based databases like SQLite.
+	 * @param mmapSize the mmap size in bytes, or zero to use the driver default.
+	 * @return this instance for chaining.
+	 */
+	public ConnectionSettings setMmapSize(final long mmapSize) {
+		this.mmapSize = mmapSize;
+		return this;
+	}
+
+	/**
+	 * Returns the page cache size used by file-based databases like SQLite.
+	 * @return the cache size or zero to use the driver default.
+	 */
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Sets the page cache size used by file-based databases like SQLite. A positive value
+	 * is the amount of pages, a negative value is the size in kibibytes.
+	 * @param cacheSize the cache size, or zero to use the driver default.
+	 * @return this instance for chaining.
+	 */
+	public ConnectionSettings setCacheSize(final int cacheSize) {
+		this.cacheSize = cacheSize;
+		return this;
+	}
+
+}
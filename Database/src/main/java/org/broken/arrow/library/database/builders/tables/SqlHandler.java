@@ -47,7 +47,7 @@ public class SqlHandler {
      * @return a {@link SqlQueryPair} containing the generated SQL command and associated values.
      */
     public SqlQueryPair replaceIntoTable(@Nonnull final Consumer<InsertHandler> callback) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.replaceInto(this.tableName, callback);
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -60,7 +60,7 @@ public class SqlHandler {
      * @return a {@link SqlQueryPair} containing the generated SQL command and associated values.
      */
     public SqlQueryPair insertIntoTable(@Nonnull final Consumer<InsertHandler> callback) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.insertInto(this.tableName, callback);
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -75,7 +75,7 @@ public class SqlHandler {
      * @return a {@link SqlQueryPair} containing the generated SQL command and associated values.
      */
     public SqlQueryPair mergeIntoTable(@Nonnull final Consumer<InsertHandler> callback) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.mergeInto(this.tableName, callback);
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -90,7 +90,7 @@ public class SqlHandler {
      * @return A {@link SqlQueryPair#SqlQueryPair(QueryBuilder, Map)} containing the generated SQL command and associated values.
      */
     public SqlQueryPair updateTable(@Nonnull final Consumer<UpdateBuilder> callback, @Nonnull final Function<WhereBuilder, LogicalOperator<WhereBuilder>> whereClause) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.update(this.tableName, callback).getSelector().where(whereClause);
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -106,7 +106,7 @@ public class SqlHandler {
      * @return A {@link SqlQueryPair#SqlQueryPair(QueryBuilder, Map)} containing the generated SQL command and associated values.
      */
     public SqlQueryPair selectRow(@Nonnull final Consumer<ColumnManager> callback, final boolean queryPlaceholders, @Nonnull final Function<WhereBuilder, LogicalOperator<WhereBuilder>> whereClause) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         ColumnManager columnManger = new ColumnManager();
         callback.accept(columnManger);
         queryBuilder.setGlobalEnableQueryPlaceholders(queryPlaceholders);
@@ -123,7 +123,7 @@ public class SqlHandler {
      * @return A {@link SqlQueryPair#SqlQueryPair(QueryBuilder, Map)} containing the generated SQL command and associated values.
      */
     public SqlQueryPair selectRow(@Nonnull final Consumer<ColumnManager> callback, @Nonnull final WhereBuilder whereClause) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         ColumnManager columnManger = new ColumnManager();
         callback.accept(columnManger);
 
@@ -138,7 +138,7 @@ public class SqlHandler {
      * @return A {@link SqlQueryPair#SqlQueryPair(QueryBuilder, Map)} containing the generated SQL command and associated values.
      */
     public SqlQueryPair removeRow(@Nonnull final Function<WhereBuilder, LogicalOperator<WhereBuilder>> whereClause) {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.setGlobalEnableQueryPlaceholders(this.isQueryPlaceholdersEnabled());
         queryBuilder.deleteFrom(this.tableName).where(whereClause);
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -150,7 +150,7 @@ public class SqlHandler {
      * @return A {@link SqlQueryPair#SqlQueryPair(QueryBuilder, Map)} containing the generated SQL command and associated values.
      */
     public SqlQueryPair dropTable() {
-        QueryBuilder queryBuilder = new QueryBuilder();
+        QueryBuilder queryBuilder = this.newQueryBuilder();
         queryBuilder.dropTable(this.tableName);
 
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
@@ -166,6 +166,16 @@ public class SqlHandler {
         return new SqlQueryPair(queryBuilder, queryBuilder.getValues());
     }
 
+    /**
+     * Creates a new query builder, that reuses the SQL text for queries with the same shape
+     * from the {@link Database#getQueryCache()}.
+     *
+     * @return a new query builder.
+     */
+    private QueryBuilder newQueryBuilder() {
+        return new QueryBuilder().setQueryCache(this.database.getQueryCache());
+    }
+
     /**
      * Checks whether SQL query values should be replaced with placeholders.
      * <p>
@@ -7,16 +7,21 @@ import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnBui
 import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
 import org.broken.arrow.library.database.core.Database;
 import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.database.utility.RowMapper;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -65,7 +70,41 @@ public class QueryLoader<T extends ConfigurationSerializable> extends QueryConte
      * row into an object of type {@code T}, wraps it in a {@link LoadDataWrapper}, and caches results.
      */
     public void load() {
-        this.executeLoadQuery();
+        this.executeLoadQuery(databaseQueryHandler::add, false);
+    }
+
+    /**
+     * Executes the configured load query on the executor from {@link Database#getAsyncExecutor()},
+     * so the calling thread is not blocked.
+     * <p>
+     * The logic set with {@link #forEachQuery(Consumer)} runs on the executor thread.
+     *
+     * @return a future that completes with the loaded rows, the same list as {@link #getCachedResult()}.
+     */
+    @Nonnull
+    public CompletableFuture<List<LoadDataWrapper<T>>> loadAsync() {
+        final SQLDatabaseQuery databaseQuery = this.getSqlDatabaseQuery();
+        return CompletableFuture.supplyAsync(() -> {
+            this.load();
+            return this.getCachedResult();
+        }, databaseQuery.getDatabase().getAsyncExecutor());
+    }
+
+    /**
+     * Executes the configured load query on the executor from {@link Database#getAsyncExecutor()},
+     * and hands every row to the callback as soon as it is read. The rows are not added to
+     * {@link #getCachedResult()}, and the rows are fetched in chunks of {@link Database#getFetchSize()},
+     * so large tables can be loaded without keeping all rows in memory.
+     * <p>
+     * The callback and the logic set with {@link #forEachQuery(Consumer)} run on the executor thread.
+     *
+     * @param rowCallback the consumer that receives every loaded row.
+     * @return a future that completes when all rows are handled.
+     */
+    @Nonnull
+    public CompletableFuture<Void> loadAsync(@Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) {
+        final SQLDatabaseQuery databaseQuery = this.getSqlDatabaseQuery();
+        return CompletableFuture.runAsync(() -> this.executeLoadQuery(rowCallback, true), databaseQuery.getDatabase().getAsyncExecutor());
     }
 
     /**
@@ -87,8 +126,11 @@ public class QueryLoader<T extends ConfigurationSerializable> extends QueryConte
      * It applies the user-defined setup, configures the database settings,
      * executes the SQL SELECT query, deserializes each result row, and
      * passes it through any processing logic.
+     *
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param streaming   set to true to let the driver fetch the rows in chunks.
      */
-    private void executeLoadQuery() {
+    private void executeLoadQuery(@Nonnull final Consumer<LoadDataWrapper<T>> rowCallback, final boolean streaming) {
         final LoadSetup<T> loadSetup = new LoadSetup<>(databaseQueryHandler);
         this.setup.accept(loadSetup);
         loadSetup.applyConfigure(databaseSettings);
@@ -102,6 +144,7 @@ public class QueryLoader<T extends ConfigurationSerializable> extends QueryConte
 
         databaseQuery.executeQuery(QueryDefinition.of(selectTableBuilder), statementWrapper -> {
             PreparedStatement preparedStatement = statementWrapper.getContextResult();
+            final Boolean autoCommit = streaming ? this.startStreaming(databaseQuery, preparedStatement) : null;
 
             if (!selectTableBuilder.getQueryModifier().getWhereBuilder().isEmpty()) {
                 selectTableBuilder.getValues().forEach((index, value) -> {
@@ -114,24 +157,73 @@ public class QueryLoader<T extends ConfigurationSerializable> extends QueryConte
             }
 
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                final ColumnBuilder<Column, Void> selectBuilder = selectTableBuilder.getQueryModifier().getSelectBuilder();
+                final Database database = databaseQuery.getDatabase();
+                final RowMapper rowMapper = RowMapper.of(resultSet, selectBuilder.getColumns());
                 while (resultSet.next()) {
-                    final ColumnBuilder<Column, Void> selectBuilder = selectTableBuilder.getQueryModifier().getSelectBuilder();
-                    Database database = databaseQuery.getDatabase();
-
-                    final Map<String, Object> dataFromDB = database.getDataFromDB(resultSet, selectBuilder.getColumns());
+                    final Map<String, Object> dataFromDB = database.getDataFromDB(resultSet, rowMapper);
                     final T deserialize = database.deSerialize(this.clazz, dataFromDB);
                     final Map<String, Object> columnsFiltered = getColumnsFiltered(selectBuilder, databaseQueryHandler, dataFromDB);
                     final LoadDataWrapper<T> loadDataWrapper = new LoadDataWrapper<>(columnsFiltered, deserialize);
 
                     this.applyQuery(loadDataWrapper);
-                    databaseQueryHandler.add(loadDataWrapper);
+                    rowCallback.accept(loadDataWrapper);
                 }
             } catch (SQLException e) {
                 log.log(Level.WARNING, e, () -> "Could not load all data for this table '" + this.getTableName() + "'. Check the stacktrace.");
+            } finally {
+                if (autoCommit != null)
+                    this.stopStreaming(preparedStatement, autoCommit);
             }
         });
     }
 
+    /**
+     * Set the fetch size on the statement, so the driver fetch the rows in chunks. PostgreSQL only
+     * use the fetch size when auto-commit is off, so it is turned off on the connection.
+     *
+     * @param databaseQuery     the database the query runs on.
+     * @param preparedStatement the statement to set the fetch size on.
+     * @return the auto-commit value to set back, or {@code null} if it was not changed.
+     */
+    @Nullable
+    private Boolean startStreaming(final SQLDatabaseQuery databaseQuery, final PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.setFetchSize(databaseQuery.getStreamingFetchSize());
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to set the fetch size, all rows will be fetched at once.");
+        }
+        if (databaseQuery.getDatabaseType() != DatabaseType.POSTGRESQL)
+            return null;
+        try {
+            final Connection connection = preparedStatement.getConnection();
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            return autoCommit;
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to turn off auto-commit, all rows will be fetched at once.");
+            return null;
+        }
+    }
+
+    /**
+     * Ends the transaction started by {@link #startStreaming(SQLDatabaseQuery, PreparedStatement)}
+     * and set back the auto-commit value.
+     *
+     * @param preparedStatement the statement the rows was read from.
+     * @param autoCommit        the auto-commit value to set back.
+     */
+    private void stopStreaming(final PreparedStatement preparedStatement, final boolean autoCommit) {
+        try {
+            final Connection connection = preparedStatement.getConnection();
+            if (!connection.getAutoCommit())
+                connection.commit();
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not reset auto-commit after loading the table '" + this.getTableName() + "'.");
+        }
+    }
+
     /**
      * Filters the columns from the full database row data based on the columns specified in the select builder
      * and the database query handler's filtered columns.
@@ -95,6 +95,8 @@ public class QuerySaver<K, V extends ConfigurationSerializable> extends QueryCon
             batchExecutor = new BatchExecutorUnsafe<>(database, connection, data);
         }
         batchExecutor.save(tableName, databaseSettings.isShallUpdate(), databaseQueryHandler);
+        // The keys in the map are not always the primary values, so all rows for this table are removed from the cache.
+        database.getEntityCache().invalidateAll(tableName);
     }
 
 }
@@ -6,11 +6,13 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 import org.broken.arrow.library.database.core.Database;
 import org.broken.arrow.library.database.builders.ConnectionSettings;
+import org.broken.arrow.library.database.utility.DatabaseType;
 import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Properties;
 
 /**
  * This class manages the HikariCP connection pool if it is available.
@@ -28,6 +30,8 @@ public class HikariCP {
     private volatile HikariDataSource hikari;
     private final Database database;
     private final String driver;
+    private String fileJdbcUrl;
+    private Properties fileProperties;
 
     /**
      * Constructs a new HikariCP manager for the specified database and JDBC driver.
@@ -88,6 +92,7 @@ public class HikariCP {
      * @throws SQLException if a database access error occurs
      */
     private Connection createPoolIfSetDataNotMatch(HikariConfig config) throws SQLException {
+        final HikariDataSource dataSource;
         synchronized (this) {
             if (this.hikari == null || this.hikari.isClosed()) {
                 this.hikari = new HikariDataSource(config);
@@ -109,8 +114,9 @@ public class HikariCP {
                 log.log(java.util.logging.Level.WARNING, () -> "Failed to initialize HikariDataSource: The connection pool is closed. Unable to proceed with the connection process. Try again later.");
                 return null;
             }
+            dataSource = this.hikari;
         }
-        return this.hikari.getConnection();
+        return dataSource.getConnection();
     }
 
     /**
@@ -129,35 +135,96 @@ public class HikariCP {
         String password = connectionSettings.getPassword();
         String extra = connectionSettings.getQuery();
 
-        if (extra.isEmpty())
+        if (extra.isEmpty()) {
             extra = "?useSSL=false&useUnicode=yes&characterEncoding=UTF-8&autoReconnect=" + true;
+            // Let MySQL respect the fetch size, so large tables can be streamed with a server side cursor.
+            if (this.database.getDatabaseType() == DatabaseType.MYSQL && this.database.isUseCursorFetch())
+                extra += "&useCursorFetch=" + true;
+        }
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(driverConnection + hostAddress + ":" + port + "/" + databaseName + extra);
         config.setUsername(user);
         config.setPassword(password);
         config.setDriverClassName(this.driver);
+        if (this.database.getDatabaseType() == DatabaseType.MYSQL) {
+            // Let the driver keep the prepared statements per connection, the SQL shape of saves and loads rarely change.
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        }
         return config;
     }
 
     /**
-     * Gets a connection for file-based databases (or similar), initializing the pool accordingly.
-     * Closes any existing pool connection before creating a new one.
+     * Gets a connection for file-based databases (or similar) from a long-lived pool.
+     * The pool is created the first time and reused after that, it is only recreated
+     * if the file path or the driver properties changes.
      *
      * @param driverConnection the JDBC connection prefix for the file database
      * @return a {@link Connection} instance
      * @throws SQLException if a database access error occurs
      */
     public Connection getFileConnection(String driverConnection) throws SQLException {
+        return this.getFileConnection(driverConnection, new Properties());
+    }
+
+    /**
+     * Gets a connection for file-based databases (or similar) from a long-lived pool.
+     * The pool is created the first time and reused after that, it is only recreated
+     * if the file path or the driver properties changes.
+     *
+     * @param driverConnection the JDBC connection prefix for the file database
+     * @param properties       the properties passed on to the driver for every new connection, like pragmas.
+     * @return a {@link Connection} instance
+     * @throws SQLException if a database access error occurs
+     */
+    public Connection getFileConnection(String driverConnection, @Nonnull Properties properties) throws SQLException {
         final ConnectionSettings connectionSettings = this.database.getConnectionSettings();
-        String hostAddress = connectionSettings.getHostAddress();
-        if (this.hikari != null)
-            this.hikari.getConnection().close();
-        HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(driverConnection + hostAddress);
-        config.setDriverClassName(this.driver);
-        this.hikari = new HikariDataSource(config);
-        turnOfLogs();
-        return this.hikari.getConnection();
+        final String jdbcUrl = driverConnection + connectionSettings.getHostAddress();
+        final HikariDataSource dataSource;
+
+        synchronized (this) {
+            if (this.hikari == null || this.hikari.isClosed() || !jdbcUrl.equals(this.fileJdbcUrl) || !properties.equals(this.fileProperties)) {
+                this.closePool();
+                HikariConfig config = new HikariConfig();
+                config.setJdbcUrl(jdbcUrl);
+                config.setDriverClassName(this.driver);
+                final int poolSize = this.database.getMaximumPoolSize();
+                if (poolSize > 0)
+                    config.setMaximumPoolSize(poolSize);
+                for (String key : properties.stringPropertyNames())
+                    config.addDataSourceProperty(key, properties.getProperty(key));
+
+                this.hikari = new HikariDataSource(config);
+                this.fileJdbcUrl = jdbcUrl;
+                this.fileProperties = (Properties) properties.clone();
+                turnOfLogs();
+            }
+            dataSource = this.hikari;
+        }
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Closes the connection pool and all connections in it. A new pool is
+     * created the next time a connection is requested.
+     */
+    public void close() {
+        synchronized (this) {
+            this.closePool();
+        }
+    }
+
+    private void closePool() {
+        if (this.hikari == null) return;
+        try {
+            this.hikari.close();
+        } catch (Exception e) {
+            log.log(e, () -> "Failed to close the connection pool.");
+        }
+        this.hikari = null;
+        this.fileJdbcUrl = null;
+        this.fileProperties = null;
     }
 
     /**
@@ -6,15 +6,18 @@ import org.broken.arrow.library.database.construct.query.builder.InsertHandler;
 import org.broken.arrow.library.database.construct.query.builder.QueryRemover;
 import org.broken.arrow.library.database.construct.query.builder.UpdateBuilder;
 import org.broken.arrow.library.database.construct.query.builder.WithManger;
+import org.broken.arrow.library.database.construct.query.builder.comparison.ComparisonHandler;
 import org.broken.arrow.library.database.construct.query.builder.insertbuilder.InsertBuilder;
 import org.broken.arrow.library.database.construct.query.builder.tablebuilder.AlterTable;
 import org.broken.arrow.library.database.construct.query.builder.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnManager;
+import org.broken.arrow.library.database.construct.query.utlity.Marker;
 import org.broken.arrow.library.database.construct.query.utlity.QueryType;
 import org.broken.arrow.library.database.construct.query.utlity.StringUtil;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -73,6 +76,7 @@ public class QueryBuilder {
     private QueryType queryType;
     private String table;
     private boolean globalEnableQueryPlaceholders = true;
+    private QueryCache queryCache;
 
     /**
      * Build a query with query type set to non.
@@ -278,6 +282,18 @@ public class QueryBuilder {
         return this;
     }
 
+    /**
+     * Set the cache used to reuse the SQL text for queries with the same shape.
+     *
+     * @param queryCache the cache to use or {@code null} to always build the query.
+     * @return this QueryBuilder instance for chaining
+     * @see QueryCache
+     */
+    public QueryBuilder setQueryCache(@Nullable final QueryCache queryCache) {
+        this.queryCache = queryCache;
+        return this;
+    }
+
     /**
      * Gets the name of the table involved in the current query.
      *
@@ -315,8 +331,21 @@ public class QueryBuilder {
         if (this.queryType == null) {
             throw new IllegalStateException("Query type must be set before building.");
         }
+        final String shapeKey = this.queryCache != null ? this.getShapeKey() : null;
+        if (shapeKey != null) {
+            final String cachedQuery = this.queryCache.get(shapeKey);
+            if (cachedQuery != null) {
+                // The update builder adds the where values to the indexed values when it is built.
+                if (this.queryType == QueryType.UPDATE)
+                    this.updateBuilder.build();
+                return cachedQuery;
+            }
+        }
         StringBuilder sql = getBuiltCommand(this.queryModifier);
-        return sql + ";";
+        final String query = sql + ";";
+        if (shapeKey != null)
+            this.queryCache.put(shapeKey, query);
+        return query;
     }
 
     /**
@@ -381,6 +410,76 @@ public class QueryBuilder {
         return -1;
     }
 
+    /**
+     * Creates the key describing the shape of this query, everything that affects the SQL
+     * text except the values.
+     *
+     * @return the shape key, or {@code null} if this query can't be cached.
+     */
+    @Nullable
+    private String getShapeKey() {
+        if (!this.globalEnableQueryPlaceholders) return null;
+
+        final StringBuilder key = new StringBuilder(64).append(this.queryType).append('|');
+        switch (this.queryType) {
+            case INSERT:
+            case MERGE_INTO:
+            case REPLACE_INTO:
+                final Map<Integer, InsertBuilder> insertValues = insertHandler.getInsertValues();
+                key.append(table).append('|');
+                for (int index = 1; index <= insertValues.size(); index++) {
+                    final InsertBuilder insertBuilder = insertValues.get(index);
+                    if (insertBuilder == null) return null;
+                    key.append(insertBuilder.getColumnName()).append(',');
+                }
+                return key.toString();
+            case UPDATE:
+                if (updateBuilder.getColumns().isEmpty()) return null;
+                key.append(table).append('|');
+                for (String column : updateBuilder.getColumns())
+                    key.append(column).append(',');
+                return appendConditionShape(key, updateBuilder.getSelector().getWhereBuilder().getConditionsList());
+            case DELETE:
+                key.append(table);
+                final WhereBuilder whereBuilder = this.queryRemover.getWhereBuilder();
+                return whereBuilder != null ? appendConditionShape(key, whereBuilder.getConditionsList()) : key.toString();
+            case SELECT:
+                key.append(queryModifier.getSelectBuilder().getColumns().isEmpty() ? "*" : queryModifier.getSelectBuilder().build())
+                        .append('|').append(queryModifier.getTableWithAlias())
+                        .append('|').append(queryModifier.getJoinBuilder().build());
+                if (appendConditionShape(key, queryModifier.getWhereBuilder().getConditionsList()) == null) return null;
+                key.append('|').append(queryModifier.getGroupByBuilder().build());
+                if (appendConditionShape(key, queryModifier.getHavingBuilder().getConditionsList()) == null) return null;
+                return key.append('|').append(queryModifier.getOrderByBuilder().build())
+                        .append(queryModifier.getLimit()).toString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Appends the layout of the conditions to the shape key. The values are left out, only the
+     * amount of placeholders matters.
+     *
+     * @param key        the key to append to.
+     * @param conditions the where or having conditions.
+     * @param <T>        the type of builder the conditions belongs to.
+     * @return the key, or {@code null} if the conditions can't be cached.
+     */
+    @Nullable
+    private static <T> String appendConditionShape(final StringBuilder key, final List<ComparisonHandler<T>> conditions) {
+        key.append('|');
+        for (ComparisonHandler<T> condition : conditions) {
+            if (condition == null) continue;
+            if (condition.getSubqueryHandler() != null || Marker.USE_VALUE.getSymbol().equals(condition.getCondition().getMarker()))
+                return null;
+            key.append(condition.getColumn()).append(' ').append(condition.getSymbol()).append(' ')
+                    .append(condition.getValues() != null ? condition.getValues().length : -1).append(' ')
+                    .append(condition.getLogicalOperator().getConditionQuery().getLogicalOperator()).append(';');
+        }
+        return key.toString();
+    }
+
     @Override
     public String toString() {
         return "QueryBuilder{" +
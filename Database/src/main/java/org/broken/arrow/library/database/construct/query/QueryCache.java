@@ -0,0 +1,141 @@
+package org.broken.arrow.library.database.construct.query;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache for the SQL text built by {@link QueryBuilder}.
+ * <p>
+ * The SQL for a save, load or remove on a table has the same shape for every row, only the
+ * values differ. When a {@link QueryBuilder} has this cache set, it computes a shape key from
+ * the query type, table, columns and the layout of the where clause, and reuses the SQL text
+ * built the first time. The values are still bound by index from {@link QueryBuilder#getValues()},
+ * so only the string building is skipped.
+ * </p>
+ * <p>
+ * Only queries using placeholders are cached, as the SQL text would otherwise contain the
+ * values. The cache holds at most {@link #getMaximumSize()} queries, the least recently used
+ * query is removed first.
+ * </p>
+ */
+public class QueryCache {
+
+    private final Map<String, String> queries;
+    private int maximumSize;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new cache with the given size.
+     *
+     * @param maximumSize the maximum amount of queries to keep.
+     */
+    public QueryCache(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.queries = new LinkedHashMap<String, String>(16, 0.75F, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > QueryCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Retrieve the cached SQL text for this query shape.
+     *
+     * @param shapeKey the shape of the query.
+     * @return the SQL text or {@code null} if it is not cached.
+     */
+    @Nullable
+    public synchronized String get(@Nonnull final String shapeKey) {
+        final String query = this.queries.get(shapeKey);
+        if (query != null)
+            this.hits++;
+        else
+            this.misses++;
+        return query;
+    }
+
+    /**
+     * Cache the SQL text for this query shape.
+     *
+     * @param shapeKey the shape of the query.
+     * @param query    the built SQL text.
+     */
+    public synchronized void put(@Nonnull final String shapeKey, @Nonnull final String query) {
+        if (this.maximumSize <= 0) return;
+        this.queries.put(shapeKey, query);
+    }
+
+    /**
+     * Removes all cached queries, for example after a table is altered.
+     */
+    public synchronized void clear() {
+        this.queries.clear();
+    }
+
+    /**
+     * Retrieve the amount of queries cached.
+     *
+     * @return the amount of queries.
+     */
+    public synchronized int size() {
+        return this.queries.size();
+    }
+
+    /**
+     * Retrieve the maximum amount of queries to keep.
+     *
+     * @return the maximum size.
+     */
+    public synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Set the maximum amount of queries to keep. Set it to 0 to turn off the cache.
+     *
+     * @param maximumSize the maximum size.
+     */
+    public synchronized void setMaximumSize(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        if (maximumSize <= 0) {
+            this.queries.clear();
+            return;
+        }
+        while (this.queries.size() > maximumSize)
+            this.queries.remove(this.queries.keySet().iterator().next());
+    }
+
+    /**
+     * Retrieve how many times the SQL text was found in the cache.
+     *
+     * @return the amount of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Retrieve how many times the SQL text had to be built.
+     *
+     * @return the amount of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "QueryCache{" +
+                "size=" + queries.size() +
+                ", maximumSize=" + maximumSize +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                '}';
+    }
+}
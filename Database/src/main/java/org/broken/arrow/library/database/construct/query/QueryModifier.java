@@ -128,7 +128,7 @@ public class QueryModifier extends Selector<ColumnBuilder<Column, Void>, Column>
     public String getLimit() {
         if(limit < 1)
             return "";
-        return "LIMIT" + limit;
+        return " LIMIT " + limit;
     }
 
     /**
@@ -9,6 +9,7 @@ import javax.annotation.Nonnull;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Builder for SQL UPDATE statements.
@@ -86,6 +87,15 @@ public class UpdateBuilder {
         return updateData;
     }
 
+    /**
+     * Gets the names of the columns to update, in the order they were added.
+     *
+     * @return the column names.
+     */
+    public Set<String> getColumns() {
+        return updateData.keySet();
+    }
+
     /**
      * Gets the map of parameter indexes to values, including WHERE values.
      *
@@ -92,7 +92,9 @@ public class ConditionBuilder<T> {
         }
         if (operator.getValues() != null) {
             if (operator.getSymbol().equals("IN") || operator.getSymbol().equals("NOT IN")) {
-                return " " + operator.getSymbol() + " (" + StringUtil.repeat(this.getMarker(),operator.getValues().length) + ")";
+                if (this.marker == Marker.USE_VALUE)
+                    return " " + operator.getSymbol() + " (" + StringUtil.stringJoin(Arrays.asList(operator.getValues())) + ")";
+                return " " + operator.getSymbol() + " (" + StringUtil.repeat(this.getMarker() + ", ", operator.getValues().length).replaceAll(", $", "") + ")";
             }
             if (operator.getSymbol().equals("BETWEEN") || operator.getSymbol().equals("NOT BETWEEN")) {
                 return getBetweenFormatted();
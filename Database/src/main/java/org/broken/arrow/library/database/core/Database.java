@@ -10,6 +10,7 @@ import org.broken.arrow.library.database.builders.wrappers.QuerySaver;
 import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
 import org.broken.arrow.library.database.connection.HikariCP;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.QueryCache;
 import org.broken.arrow.library.database.construct.query.builder.CreateTableHandler;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnManager;
@@ -20,16 +21,18 @@ import org.broken.arrow.library.database.core.databases.PostgreSQL;
 import org.broken.arrow.library.database.core.databases.SQLite;
 import org.broken.arrow.library.database.utility.BatchExecutor;
 import org.broken.arrow.library.database.utility.BatchExecutorUnsafe;
+import org.broken.arrow.library.database.utility.BatchStatistics;
+import org.broken.arrow.library.database.utility.EntityCache;
 import org.broken.arrow.library.database.utility.DatabaseCommandConfig;
 import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.database.utility.RowMapper;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
-import org.broken.arrow.library.serialize.utility.serialize.MethodReflectionUtils;
+import org.broken.arrow.library.serialize.utility.serialize.DeserializerRegistry;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.logging.Validate;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -42,6 +45,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -64,6 +72,17 @@ public abstract class Database {
     private long idleTimeout;
     private long maxLifeTime;
     private int minimumIdle;
+    private int existenceCheckChunkSize = 500;
+    private int batchSize = 100;
+    private int commitInterval = 100;
+    private int fetchSize = 1000;
+    private boolean useCursorFetch;
+    private final QueryCache queryCache = new QueryCache(256);
+    private final EntityCache entityCache = new EntityCache();
+    private boolean rowViewEnabled;
+    private Consumer<BatchStatistics> batchStatisticsListener;
+    private Executor asyncExecutor;
+    private ExecutorService defaultAsyncExecutor;
 
     /**
      * The  database instance.
@@ -333,11 +352,44 @@ public abstract class Database {
     @Nullable
     public abstract <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue);
 
+    /**
+     * Load all rows from specified database table without blocking the calling thread.
+     * The query runs on the executor from {@link #getAsyncExecutor()}.
+     *
+     * @param tableName name of the table you want to get data from.
+     * @param clazz     the class you have your static deserialize method.
+     * @param <T>       the type of ConfigurationSerialize instance.
+     * @return a future that completes with all data you have in the table, or with {@code null}
+     * if the table is not found.
+     * @see #loadAll(String, Class)
+     */
+    @Nonnull
+    public <T extends ConfigurationSerializable> CompletableFuture<List<LoadDataWrapper<T>>> loadAllAsync(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        return CompletableFuture.supplyAsync(() -> this.loadAll(tableName, clazz), this.getAsyncExecutor());
+    }
+
+    /**
+     * Loads a single row from the specified database table without blocking the calling thread.
+     * The query runs on the executor from {@link #getAsyncExecutor()}.
+     *
+     * @param tableName   the name of the table to retrieve data from.
+     * @param clazz       the class containing the static deserialize method.
+     * @param columnValue the primary key value used to find the data.
+     * @param <T>         a class that extends {@code ConfigurationSerializable}.
+     * @return a future that completes with the retrieved row, or with {@code null} if no data is found.
+     * @see #load(String, Class, String)
+     */
+    @Nonnull
+    public <T extends ConfigurationSerializable> CompletableFuture<LoadDataWrapper<T>> loadAsync(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return CompletableFuture.supplyAsync(() -> this.load(tableName, clazz, columnValue), this.getAsyncExecutor());
+    }
+
     /**
      * Loads one or more rows from the specified database table.
      * <p>
      * This method performs a blocking database query, so it is strongly recommended
-     * to invoke {@link QueryLoader#load()} in a separate thread to avoid blocking the main thread.
+     * to invoke {@link QueryLoader#load()} in a separate thread to avoid blocking the main thread,
+     * or use {@link QueryLoader#loadAsync()}.
      * </p>
      * <p>
      * Use the {@link QueryLoader} instance to define how rows should be handled during loading
@@ -381,6 +433,7 @@ public abstract class Database {
             return;
         }
         batchExecutor.removeAll(tableName, values, table::createWhereClauseFromPrimaryColumns);
+        this.entityCache.invalidate(tableName, values);
     }
 
     /**
@@ -408,6 +461,7 @@ public abstract class Database {
             return;
         }
         batchExecutor.remove(tableName, value, table::createWhereClauseFromPrimaryColumns);
+        this.entityCache.invalidate(tableName, value);
     }
 
     /**
@@ -429,6 +483,7 @@ public abstract class Database {
         }
 
         batchExecutor.dropTable(tableName);
+        this.entityCache.invalidateAll(tableName);
     }
 
     /**
@@ -870,6 +925,26 @@ public abstract class Database {
         }
     }
 
+    /**
+     * Release the resources held by this database instance, like the connection pool
+     * and the default executor used by the async methods. Call this when your plugin
+     * shuts down.
+     * <p>
+     * The executor you set with {@link #setAsyncExecutor(Executor)} is not shut down,
+     * this is up to you.
+     */
+    public void close() {
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = this.defaultAsyncExecutor;
+            if (executor != null && this.asyncExecutor == executor)
+                this.asyncExecutor = null;
+            this.defaultAsyncExecutor = null;
+        }
+        if (executor != null)
+            executor.shutdown();
+    }
+
     /**
      * Determines whether secure query execution is enabled.
      *
@@ -894,8 +969,11 @@ public abstract class Database {
 
     /**
      * Converts the data retrieved from the database and puts it into a map. Some databases
-     * may return column names in uppercase, and this method uses {@link #getColumnName(List, String)} )}
-     * to correct the keys in the map based on the column names set when you created the table.
+     * may return column names in uppercase, so the keys in the map are corrected based on
+     * the column names set when you created the table.
+     * <p>
+     * This reads the result set metadata on every call, when you read several rows from the
+     * same query, create a {@link RowMapper} once and use {@link #getDataFromDB(ResultSet, RowMapper)}.
      *
      * @param resultSet The ResultSet object representing the cursor to retrieve the data set.
      * @param columns   The list of columns you want to check against column names.
@@ -904,33 +982,22 @@ public abstract class Database {
      * @throws SQLException If there is an issue reading data from the database.
      */
     public Map<String, Object> getDataFromDB(final ResultSet resultSet, List<Column> columns) throws SQLException {
-        final ResultSetMetaData rsmd = resultSet.getMetaData();
-        final int columnCount = rsmd.getColumnCount();
-        final Map<String, Object> objectMap = new HashMap<>();
-        for (int i = 1; i <= columnCount; i++) {
-            objectMap.put(this.getColumnName(columns, rsmd.getColumnName(i)), resultSet.getObject(i));
-        }
-        return objectMap;
+        return RowMapper.of(resultSet, columns).toMap(resultSet);
     }
 
     /**
-     * Retrieves the correct column name for the given table from the TableWrapper.
-     * Some databases may return column names in uppercase, so this method allows you
-     * to fetch the column name with the appropriate casing as set in the TableWrapper.
+     * Converts the current row into a map, using a row mapper created once for the query.
+     * If {@link #isRowViewEnabled()} is set, a read-only map backed by an array is returned.
      *
-     * @param columns    The list of columns to check for a match.
-     * @param columnName The name of the column to retrieve.
-     * @return The column name with the correct case as set in the TableWrapper. If there
-     * is no matching column name in the TableWrapper, it returns the columnName
-     * you set in the second argument.
+     * @param resultSet The ResultSet object positioned on the row to read.
+     * @param rowMapper The row mapper created for this query with {@link RowMapper#of(ResultSet, List)}.
+     * @return A map containing the column values from the database.
+     * @throws SQLException If there is an issue reading data from the database.
      */
-    private String getColumnName(List<Column> columns, String columnName) {
-        if (!columns.isEmpty())
-            for (Column column : columns) {
-                if (column.getColumnName().equalsIgnoreCase(columnName)) return column.getColumnName();
-            }
-
-        return columnName;
+    public Map<String, Object> getDataFromDB(final ResultSet resultSet, final RowMapper rowMapper) throws SQLException {
+        if (this.rowViewEnabled)
+            return rowMapper.toView(resultSet);
+        return rowMapper.toMap(resultSet);
     }
 
     /**
@@ -1067,6 +1134,232 @@ public abstract class Database {
         this.maxLifeTime = maxLifeTime * 1000L;
     }
 
+    /**
+     * Retrieve the maximum amount of values looked up in a single query, when checking
+     * which rows in a batch already exist in the database.
+     *
+     * @return the maximum amount of values per lookup query.
+     */
+    public int getExistenceCheckChunkSize() {
+        return existenceCheckChunkSize;
+    }
+
+    /**
+     * Set the maximum amount of values looked up in a single query, when checking which
+     * rows in a batch already exist in the database. Instead of one query for every row,
+     * the rows are checked in chunks of this size.
+     * <p>
+     * Note: Some databases limit how many placeholders a single query can have, for
+     * example older SQLite versions only allow 999.
+     *
+     * @param chunkSize the maximum amount of values per lookup query, must be above zero.
+     */
+    public void setExistenceCheckChunkSize(final int chunkSize) {
+        Validate.checkBoolean(chunkSize < 1, "The chunk size must be above zero, you set: " + chunkSize);
+        this.existenceCheckChunkSize = chunkSize;
+    }
+
+    /**
+     * Retrieve the maximum amount of rows added to one prepared statement before
+     * it is sent to the database.
+     *
+     * @return the amount of rows per batch.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the maximum amount of rows added to one prepared statement before it is sent
+     * to the database. Rows using the same SQL query share one prepared statement, so a
+     * larger size means fewer round trips to the database.
+     * <p>
+     * Note: For MySQL you also need to add {@code rewriteBatchedStatements=true} to the
+     * connection query, otherwise the driver still sends one row at a time.
+     *
+     * @param batchSize the amount of rows per batch, must be above zero.
+     */
+    public void setBatchSize(final int batchSize) {
+        Validate.checkBoolean(batchSize < 1, "The batch size must be above zero, you set: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Retrieve after how many rows the changes are committed while a batch is written.
+     *
+     * @return the amount of rows between every commit.
+     */
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Set after how many rows the changes are committed while a batch is written. All
+     * pending rows are sent to the database before every commit.
+     *
+     * @param commitInterval the amount of rows between every commit, must be above zero.
+     */
+    public void setCommitInterval(final int commitInterval) {
+        Validate.checkBoolean(commitInterval < 1, "The commit interval must be above zero, you set: " + commitInterval);
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * Retrieve the amount of rows the driver fetch from the database at a time, when
+     * rows are streamed.
+     *
+     * @return the fetch size.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Set the amount of rows the driver fetch from the database at a time, when rows are
+     * streamed with methods like {@link SQLDatabaseQuery#streamAll(String, Class, int, Consumer)}.
+     * Only this amount of rows is kept in memory by the driver.
+     * <p>
+     * Note: MySQL only respects the fetch size when {@code useCursorFetch=true} is set, see
+     * {@link #setUseCursorFetch(boolean)}. Without it, MySQL streams the rows one by one instead.
+     *
+     * @param fetchSize the amount of rows to fetch at a time, must be above zero.
+     */
+    public void setFetchSize(final int fetchSize) {
+        Validate.checkBoolean(fetchSize < 1, "The fetch size must be above zero, you set: " + fetchSize);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Retrieve if MySQL shall use a server side cursor when rows are streamed.
+     *
+     * @return {@code true} if {@code useCursorFetch=true} is added to the default connection query.
+     */
+    public boolean isUseCursorFetch() {
+        return useCursorFetch;
+    }
+
+    /**
+     * Set if MySQL shall use a server side cursor when rows are streamed, so the driver fetch
+     * {@link #getFetchSize()} rows at a time. It adds {@code useCursorFetch=true} to the default
+     * connection query, if you set your own connection query you need to add it yourself.
+     * <p>
+     * Note: this turns on server side prepared statements for every query on the connection, not
+     * only when rows are streamed. It is off by default, then the rows are streamed one by one.
+     * It is used for the connections opened after it is set.
+     *
+     * @param useCursorFetch {@code true} to use a server side cursor.
+     */
+    public void setUseCursorFetch(final boolean useCursorFetch) {
+        this.useCursorFetch = useCursorFetch;
+    }
+
+    /**
+     * Retrieve the fetch size to set on a statement that streams rows. For MySQL without
+     * {@link #isUseCursorFetch()} it is {@link Integer#MIN_VALUE}, that makes the driver stream
+     * the rows one by one for only this statement.
+     *
+     * @return the fetch size for the statement.
+     */
+    public int getStreamingFetchSize() {
+        if (this.getDatabaseType() == DatabaseType.MYSQL && !this.useCursorFetch)
+            return Integer.MIN_VALUE;
+        return fetchSize;
+    }
+
+    /**
+     * Retrieve the cache for the SQL text built by {@link org.broken.arrow.library.database.builders.tables.SqlHandler}. Saves, loads and removes
+     * have the same SQL shape for every row, so the SQL is only built once per shape. Use
+     * {@link QueryCache#setMaximumSize(int)} to change the size or turn it off.
+     *
+     * @return the query cache.
+     */
+    @Nonnull
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Retrieve the cache in front of {@link #load(String, Class, String)}. It is off for all
+     * tables until you turn it on with {@link EntityCache#enable(String, int, long, java.util.concurrent.TimeUnit)}.
+     *
+     * @return the entity cache.
+     */
+    @Nonnull
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Check if the loaded rows are handed to your deserialize method as read-only maps.
+     *
+     * @return {@code true} if read-only maps are used.
+     */
+    public boolean isRowViewEnabled() {
+        return rowViewEnabled;
+    }
+
+    /**
+     * Set if the loaded rows should be handed to your deserialize method as read-only maps
+     * backed by an array, instead of a new {@link HashMap} for every row. It lowers the memory
+     * used when loading large tables.
+     * <p>
+     * Note: Only turn this on if your deserialize methods never modify the map they get.
+     *
+     * @param rowViewEnabled set to true to use read-only maps.
+     */
+    public void setRowViewEnabled(final boolean rowViewEnabled) {
+        this.rowViewEnabled = rowViewEnabled;
+    }
+
+    /**
+     * Retrieve the listener that receives the statistics after every batch is written.
+     *
+     * @return the listener or {@code null} if it is not set.
+     */
+    @Nullable
+    public Consumer<BatchStatistics> getBatchStatisticsListener() {
+        return batchStatisticsListener;
+    }
+
+    /**
+     * Set a listener that receives the statistics after every batch is written, like how many
+     * rows, prepared statements and flushes it took and the elapsed time.
+     *
+     * @param batchStatisticsListener the listener or {@code null} to remove it.
+     */
+    public void setBatchStatisticsListener(@Nullable final Consumer<BatchStatistics> batchStatisticsListener) {
+        this.batchStatisticsListener = batchStatisticsListener;
+    }
+
+    /**
+     * Retrieve the executor used by the async load methods, like {@link #loadAllAsync(String, Class)}.
+     * <p>
+     * If no executor is set, a pool of daemon threads is created the first time it is used. The
+     * pool size follows {@link #getMaximumPoolSize()}, so several tables can be loaded at the same
+     * time over the connection pool.
+     * </p>
+     *
+     * @return the executor for async database calls.
+     */
+    @Nonnull
+    public synchronized Executor getAsyncExecutor() {
+        if (this.asyncExecutor == null) {
+            this.defaultAsyncExecutor = this.createAsyncExecutor();
+            this.asyncExecutor = this.defaultAsyncExecutor;
+        }
+        return this.asyncExecutor;
+    }
+
+    /**
+     * Set the executor used by the async load methods. It is up to you to shut down the
+     * executor you set.
+     *
+     * @param asyncExecutor the executor to use or {@code null} to use the default pool.
+     */
+    public synchronized void setAsyncExecutor(@Nullable final Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
     /**
      * Retrieve the settings used to connect to the database.
      *
@@ -1090,10 +1383,17 @@ public abstract class Database {
      * @return an instance of {@code T} populated from the serialized data.
      */
     public <T extends ConfigurationSerializable> T deSerialize(@Nonnull final Class<T> clazz, @Nonnull final Map<String, Object> serializedData) {
-        Method deserializeMethod = MethodReflectionUtils.getMethod(clazz, "deserialize", Map.class);
-        if (deserializeMethod == null)
-            deserializeMethod = MethodReflectionUtils.getMethod(clazz, "valueOf", Map.class);
-        return MethodReflectionUtils.invokeStaticMethod(clazz, deserializeMethod, serializedData);
+        return DeserializerRegistry.deserialize(clazz, serializedData);
+    }
+
+    private ExecutorService createAsyncExecutor() {
+        final int poolSize = this.getMaximumPoolSize() > 0 ? this.getMaximumPoolSize() : 4;
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            final Thread thread = new Thread(runnable, "Database-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
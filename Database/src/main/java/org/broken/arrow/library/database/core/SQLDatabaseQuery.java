@@ -11,12 +11,16 @@ import org.broken.arrow.library.database.builders.wrappers.QueryLoader;
 import org.broken.arrow.library.database.builders.wrappers.QuerySaver;
 import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.QueryModifier;
 import org.broken.arrow.library.database.construct.query.builder.comparison.ComparisonHandler;
 import org.broken.arrow.library.database.construct.query.builder.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
 import org.broken.arrow.library.database.construct.query.utlity.QueryDefinition;
 import org.broken.arrow.library.database.utility.BatchExecutor;
 import org.broken.arrow.library.database.utility.BatchExecutorUnsafe;
+import org.broken.arrow.library.database.utility.DatabaseType;
+import org.broken.arrow.library.database.utility.EntityCache;
+import org.broken.arrow.library.database.utility.RowMapper;
 import org.broken.arrow.library.database.utility.StatementContext;
 import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
 import org.broken.arrow.library.logging.Logging;
@@ -32,6 +36,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -96,6 +101,7 @@ public abstract class SQLDatabaseQuery extends Database {
         }
 
         batchExecutor.saveAll(tableName, shallUpdate, table::createWhereClauseFromPrimaryColumns, columns);
+        this.invalidateCachedRows(tableName, dataWrapperList);
     }
 
     /**
@@ -137,6 +143,7 @@ public abstract class SQLDatabaseQuery extends Database {
         }
 
         batchExecutor.save(tableName, dataWrapper, shallUpdate, where -> table.createWhereClauseFromPrimaryColumns(where, dataWrapper.getPrimaryValue()), columns);
+        getDatabase().getEntityCache().invalidate(tableName, dataWrapper.getPrimaryValue());
     }
 
     /**
@@ -174,19 +181,52 @@ public abstract class SQLDatabaseQuery extends Database {
     @Override
     @Nullable
     public <T extends ConfigurationSerializable> List<LoadDataWrapper<T>> loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz) {
+        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
+        if (!this.loadAll(tableName, clazz, loadDataWrappers::add))
+            return null;
+        return loadDataWrappers;
+    }
+
+    /**
+     * Loads all rows from the specified table and hands every row to the callback as soon as
+     * it is read, without keeping the rows in memory. The query runs on the executor from
+     * {@link #getAsyncExecutor()}, and so does the callback.
+     *
+     * @param tableName   the name of the table to load data from.
+     * @param clazz       the class of the objects to deserialize into.
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param <T>         the type of the deserialized objects.
+     * @return a future that completes with {@code true} when all rows are handled, or
+     * {@code false} if the table is not found.
+     */
+    @Nonnull
+    public <T extends ConfigurationSerializable> CompletableFuture<Boolean> loadAllAsync(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) {
+        return CompletableFuture.supplyAsync(() -> this.loadAll(tableName, clazz, rowCallback), this.getAsyncExecutor());
+    }
+
+    /**
+     * Loads all rows from the specified table and hands every row to the consumer.
+     *
+     * @param tableName   the name of the table to load data from.
+     * @param clazz       the class of the objects to deserialize into.
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param <T>         the type of the deserialized objects.
+     * @return {@code true} if the table was found.
+     */
+    private <T extends ConfigurationSerializable> boolean loadAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) {
         final SqlQueryTable table = getDatabase().getTableFromName(tableName);
 
         if (table == null) {
             getDatabase().printFailFindTable(tableName);
-            return null;
+            return false;
         }
 
-        final List<LoadDataWrapper<T>> loadDataWrappers = new ArrayList<>();
         final String selectRow = table.selectTable();
         this.executeQuery(QueryDefinition.of(selectRow), statementWrapper -> {
             try (ResultSet resultSet = statementWrapper.getContextResult().executeQuery()) {
+                final RowMapper rowMapper = RowMapper.of(resultSet, table.getTable().getColumns());
                 while (resultSet.next()) {
-                    final Map<String, Object> dataFromDB = getDatabase().getDataFromDB(resultSet, table.getTable().getColumns());
+                    final Map<String, Object> dataFromDB = getDatabase().getDataFromDB(resultSet, rowMapper);
                     final T deserialize = getDatabase().deSerialize(clazz, dataFromDB);
                     final List<Column> primaryColumns = table.getTable().getPrimaryColumns();
                     final Map<String, Object> objectList = new HashMap<>();
@@ -196,14 +236,145 @@ public abstract class SQLDatabaseQuery extends Database {
                             objectList.put(column.getColumnName(), primaryValue);
                         }
                     }
-                    loadDataWrappers.add(new LoadDataWrapper<>(objectList, deserialize));
+                    rowCallback.accept(new LoadDataWrapper<>(objectList, deserialize));
                 }
             } catch (SQLException e) {
                 log.log(Level.WARNING, e, () -> "Could not load all data for this table '" + tableName + "'. Check the stacktrace.");
             }
         });
+        return true;
+    }
 
-        return loadDataWrappers;
+    /**
+     * Streams all rows from the specified table to the consumer, one row at a time.
+     * <p>
+     * Unlike {@link #loadAll(String, Class)} the rows are never collected in a list. The query
+     * uses a forward-only cursor and the fetch size from {@link #getFetchSize()}, so memory use
+     * stays the same no matter how large the table is. For PostgreSQL auto-commit is turned
+     * off while streaming, as it only uses a cursor inside a transaction. MySQL streams the rows
+     * one by one, or uses a cursor with the fetch size if {@link #setUseCursorFetch(boolean)} is on.
+     * </p>
+     * <p>
+     * If {@code pageSize} is above zero, the table is read in pages ordered by the primary key,
+     * like {@code WHERE key > last_key ORDER BY key LIMIT pageSize}. Every page is a short query,
+     * so no cursor is kept open for the whole table. It only works for tables with exactly one
+     * primary column, otherwise the whole table is read with one cursor.
+     * </p>
+     *
+     * @param tableName   the name of the table to load data from.
+     * @param clazz       the class of the objects to deserialize into.
+     * @param pageSize    the amount of rows per page, or zero to read the whole table with one query.
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param <T>         the type of the deserialized objects.
+     * @return {@code true} if all rows were read, {@code false} if the table is not found or the query failed.
+     */
+    public <T extends ConfigurationSerializable> boolean streamAll(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize, @Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) {
+        final SqlQueryTable table = getDatabase().getTableFromName(tableName);
+        if (table == null) {
+            getDatabase().printFailFindTable(tableName);
+            return false;
+        }
+        final List<Column> primaryColumns = table.getTable().getPrimaryColumns();
+        final boolean usePages = pageSize > 0 && primaryColumns.size() == 1;
+        if (pageSize > 0 && !usePages)
+            log.log(Level.WARNING, () -> "Keyset pagination needs exactly one primary column in table '" + tableName + "'. The whole table will be read with one query instead.");
+
+        final Connection connection = getDatabase().attemptToConnect();
+        if (connection == null) {
+            getDatabase().printFailToOpen();
+            return false;
+        }
+        boolean autoCommit = true;
+        try {
+            autoCommit = connection.getAutoCommit();
+            if (this.getDatabaseType() == DatabaseType.POSTGRESQL)
+                connection.setAutoCommit(false);
+
+            if (!usePages) {
+                this.streamRows(connection, table, clazz, table.selectTable(), new HashMap<>(), rowCallback);
+            } else {
+                final String primaryColumn = primaryColumns.get(0).getColumnName();
+                Object lastKey = null;
+                int rowsRead;
+                do {
+                    final Object fromKey = lastKey;
+                    final QueryBuilder pageBuilder = new QueryBuilder();
+                    final QueryModifier pageQuery = pageBuilder.select(table.getTable().getColumns()).from(table.getTableName());
+                    if (fromKey != null)
+                        pageQuery.where(whereBuilder -> whereBuilder.where(primaryColumn).greaterThan(fromKey));
+                    pageQuery.orderBy(orderBy -> orderBy.add(primaryColumn, true)).limit(pageSize);
+
+                    final RowCounter<T> page = new RowCounter<>(rowCallback, primaryColumn);
+                    this.streamRows(connection, table, clazz, pageBuilder.build(), pageBuilder.getValues(), page);
+                    rowsRead = page.rows;
+                    lastKey = page.lastKey;
+                } while (rowsRead == pageSize && lastKey != null);
+            }
+            if (!connection.getAutoCommit())
+                connection.commit();
+            return true;
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not stream all data for this table '" + tableName + "'. Check the stacktrace.");
+            return false;
+        } finally {
+            try {
+                connection.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                log.log(Level.WARNING, e, () -> "Could not reset auto-commit after streaming the table '" + tableName + "'.");
+            }
+            getDatabase().closeConnection(connection);
+        }
+    }
+
+    /**
+     * Streams all rows from the specified table on the executor from {@link #getAsyncExecutor()}.
+     * The callback also runs on the executor thread.
+     *
+     * @param tableName   the name of the table to load data from.
+     * @param clazz       the class of the objects to deserialize into.
+     * @param pageSize    the amount of rows per page, or zero to read the whole table with one query.
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param <T>         the type of the deserialized objects.
+     * @return a future that completes with the result of {@link #streamAll(String, Class, int, Consumer)}.
+     */
+    @Nonnull
+    public <T extends ConfigurationSerializable> CompletableFuture<Boolean> streamAllAsync(@Nonnull final String tableName, @Nonnull final Class<T> clazz, final int pageSize, @Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) {
+        return CompletableFuture.supplyAsync(() -> this.streamAll(tableName, clazz, pageSize, rowCallback), this.getAsyncExecutor());
+    }
+
+    /**
+     * Runs the select query with a forward-only cursor and hands every row to the consumer.
+     *
+     * @param connection  the connection to use, it is not closed by this method.
+     * @param table       the table to read from.
+     * @param clazz       the class of the objects to deserialize into.
+     * @param query       the select query.
+     * @param values      the values for the placeholders in the query.
+     * @param rowCallback the consumer that receives every loaded row.
+     * @param <T>         the type of the deserialized objects.
+     * @throws SQLException if the query fails.
+     */
+    private <T extends ConfigurationSerializable> void streamRows(@Nonnull final Connection connection, @Nonnull final SqlQueryTable table, @Nonnull final Class<T> clazz,
+                                                                  @Nonnull final String query, @Nonnull final Map<Integer, Object> values, @Nonnull final Consumer<LoadDataWrapper<T>> rowCallback) throws SQLException {
+        final List<Column> columns = table.getTable().getColumns();
+        final List<Column> primaryColumns = table.getTable().getPrimaryColumns();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            preparedStatement.setFetchSize(this.getStreamingFetchSize());
+            for (Map.Entry<Integer, Object> value : values.entrySet())
+                preparedStatement.setObject(value.getKey(), value.getValue());
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                final RowMapper rowMapper = RowMapper.of(resultSet, columns);
+                while (resultSet.next()) {
+                    final Map<String, Object> dataFromDB = getDatabase().getDataFromDB(resultSet, rowMapper);
+                    final T deserialize = getDatabase().deSerialize(clazz, dataFromDB);
+                    final Map<String, Object> primaryValues = new HashMap<>();
+                    for (Column column : primaryColumns)
+                        primaryValues.put(column.getColumnName(), dataFromDB.get(column.getColumnName()));
+                    rowCallback.accept(new LoadDataWrapper<>(primaryValues, deserialize));
+                }
+            }
+        }
     }
 
     /**
@@ -212,6 +383,10 @@ public abstract class SQLDatabaseQuery extends Database {
      * Returns a {@link LoadDataWrapper} containing the deserialized object and its key values,
      * or null if no matching record is found or the table is missing.
      * </p>
+     * <p>
+     * If the {@link #getEntityCache()} is turned on for this table, the row is returned from
+     * the cache when possible.
+     * </p>
      *
      * @param tableName   the table name.
      * @param clazz       the class of the object to deserialize into.
@@ -222,6 +397,24 @@ public abstract class SQLDatabaseQuery extends Database {
     @Override
     @Nullable
     public <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return getDatabase().getEntityCache().load(tableName, clazz, columnValue, () -> this.loadRow(tableName, clazz, columnValue));
+    }
+
+    /**
+     * Removes the saved rows from the entity cache, so the next load reads the new values.
+     *
+     * @param tableName       the table name.
+     * @param dataWrapperList the saved rows.
+     */
+    protected void invalidateCachedRows(@Nonnull final String tableName, @Nonnull final List<DataWrapper> dataWrapperList) {
+        final EntityCache entityCache = getDatabase().getEntityCache();
+        if (!entityCache.isEnabled(tableName)) return;
+        for (DataWrapper dataWrapper : dataWrapperList)
+            entityCache.invalidate(tableName, dataWrapper.getPrimaryValue());
+    }
+
+    @Nullable
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> loadRow(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
         SqlQueryTable table = getDatabase().getTableFromName(tableName);
         if (table == null) {
             getDatabase().printFailFindTable(tableName);
@@ -375,4 +568,28 @@ public abstract class SQLDatabaseQuery extends Database {
         return this;
     }
 
+    /**
+     * Counts the rows in one page and keeps the primary key of the last row,
+     * so the next page can start after it.
+     *
+     * @param <T> the type of the deserialized objects.
+     */
+    private static class RowCounter<T extends ConfigurationSerializable> implements Consumer<LoadDataWrapper<T>> {
+        private final Consumer<LoadDataWrapper<T>> rowCallback;
+        private final String primaryColumn;
+        private int rows;
+        private Object lastKey;
+
+        private RowCounter(final Consumer<LoadDataWrapper<T>> rowCallback, final String primaryColumn) {
+            this.rowCallback = rowCallback;
+            this.primaryColumn = primaryColumn;
+        }
+
+        @Override
+        public void accept(final LoadDataWrapper<T> loadDataWrapper) {
+            this.rows++;
+            this.lastKey = loadDataWrapper.getPrimaryValues().get(this.primaryColumn);
+            this.rowCallback.accept(loadDataWrapper);
+        }
+    }
 }
@@ -61,7 +61,7 @@ public class H2DB extends SQLDatabaseQuery {
 
         this.isHikariAvailable = isDriverFound(hikariClazzPath);
         this.loadDriver("org.h2.Driver");
-        connect();
+        this.closeConnection(connect());
     }
 
 
@@ -81,6 +81,17 @@ public class H2DB extends SQLDatabaseQuery {
         return this.isHikariAvailable;
     }
 
+    /**
+     * Closes the connection pool, if HikariCP is used. A new pool is
+     * created the next time a connection is requested.
+     */
+    @Override
+    public void close() {
+        if (this.hikari != null)
+            this.hikari.close();
+        super.close();
+    }
+
 
     @Nonnull
     @Override
@@ -2,6 +2,7 @@ package org.broken.arrow.library.database.core.databases;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
 import com.mongodb.ServerApi;
 import com.mongodb.ServerApiVersion;
 import com.mongodb.client.FindIterable;
@@ -9,9 +10,12 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
-import com.mongodb.client.result.UpdateResult;
+import com.mongodb.client.model.WriteModel;
 import org.broken.arrow.library.database.builders.ConnectionSettings;
 import org.broken.arrow.library.database.builders.DataWrapper;
 import org.broken.arrow.library.database.builders.LoadDataWrapper;
@@ -30,6 +34,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,12 +53,15 @@ import java.util.logging.Level;
  * </p>
  * <p>
  * Unlike SQL databases, this implementation directly interacts with
- * {@link MongoClient} and MongoDB collections without using connection pooling.
+ * {@link MongoClient} and MongoDB collections without using HikariCP. The client is
+ * kept open between the calls, as it holds its own connection pool. Use {@link #close()}
+ * when you no longer need the database.
  * </p>
  * <p>
  * Key features:
  * <ul>
  *   <li>Automatic connection management with open/close handling</li>
+ *   <li>Saves sent as unordered bulk writes with upserts, see {@link #getBatchSize()}</li>
  *   <li>Save and load data wrappers with flexible serialization</li>
  *   <li>Support for executing queries using MongoDB's native API with functional callbacks</li>
  *   <li>Collection creation based on configured table metadata</li>
@@ -64,8 +73,8 @@ public class MongoDB extends Database {
     private final String startSQLUrl;
     private final String driver;
     private final ConnectionSettings preferences;
-    private MongoClient mongoClient;
-    private boolean isClosed;
+    private volatile MongoClient mongoClient;
+    private volatile boolean isClosed;
 
     /**
      * Creates a new MongoDB instance with the given connection settings.
@@ -99,12 +108,9 @@ public class MongoDB extends Database {
 
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(tableName);
-        for (DataWrapper dataWrapper : dataWrapperList) {
-            saveData(dataWrapper, sqlQueryTable, collection);
-        }
-
-        // Close the MongoDB connection
-        this.closeConnection();
+        saveData(dataWrapperList, sqlQueryTable, collection, shallUpdate ? columns : null);
+        for (DataWrapper dataWrapper : dataWrapperList)
+            this.getEntityCache().invalidate(tableName, dataWrapper.getPrimaryValue());
     }
 
     @Override
@@ -119,14 +125,15 @@ public class MongoDB extends Database {
             this.printFailFindTable(tableName);
             return;
         }
-        if (isClosed()) return;
+        if (!openMongo()) {
+            errorCouldConnect();
+            return;
+        }
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(tableName);
 
-        saveData(dataWrapper, tableWrapper, collection);
-
-        // Close the MongoDB connection
-        this.closeConnection();
+        saveData(Collections.singletonList(dataWrapper), tableWrapper, collection, shallUpdate ? columns : null);
+        this.getEntityCache().invalidate(tableName, dataWrapper.getPrimaryValue());
     }
 
     @Nullable
@@ -170,13 +177,17 @@ public class MongoDB extends Database {
         } else {
             log.log(() -> "Could not find any row within this table " + tableName);
         }
-        this.closeConnection();
         return loadDataWrappers;
     }
 
     @Nullable
     @Override
     public <T extends ConfigurationSerializable> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
+        return this.getEntityCache().load(tableName, clazz, columnValue, () -> this.loadDocument(tableName, clazz, columnValue));
+    }
+
+    @Nullable
+    private <T extends ConfigurationSerializable> LoadDataWrapper<T> loadDocument(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String columnValue) {
         SqlQueryTable tableWrapper = this.getTableFromName(tableName);
         if (tableWrapper == null) {
             this.printFailFindTable(tableName);
@@ -213,8 +224,6 @@ public class MongoDB extends Database {
         } else {
             log.log(() -> "Could not find any row with this value " + columnValue);
         }
-        // Close the MongoDB connection
-        this.closeConnection();
         return loadDataWrapper;
     }
 
@@ -242,11 +251,7 @@ public class MongoDB extends Database {
         }
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(queryBuilder.getQuery());
-        try {
-            return function.apply( new StatementContext<>(collection));
-        } finally {
-            closeConnection();
-        }
+        return function.apply( new StatementContext<>(collection));
     }
 
     /**
@@ -269,11 +274,7 @@ public class MongoDB extends Database {
         }
         MongoDatabase database = mongoClient.getDatabase(preferences.getDatabaseName());
         MongoCollection<Document> collection = database.getCollection(queryBuilder.getQuery());
-        try {
-            consumer.accept(new StatementContext<>(collection));
-        } finally {
-            closeConnection();
-        }
+        consumer.accept(new StatementContext<>(collection));
     }
 
     @Override
@@ -308,7 +309,6 @@ public class MongoDB extends Database {
                 database.createCollection(entityTables.getKey());
             }
         }
-        this.closeConnection();
     }
 
     /**
@@ -329,20 +329,21 @@ public class MongoDB extends Database {
      *
      * @return true if connection is open or was successfully opened, false otherwise.
      */
-    public boolean openMongo() {
-        if (isClosed())
+    public synchronized boolean openMongo() {
+        if (isClosed()) {
             connect();
-        this.isClosed = false;
+            this.isClosed = false;
+        }
         return this.mongoClient != null;
     }
 
     /**
      * Closes the MongoDB connection.
      * <p>
-     * After calling this, you must use {@link #connect()} or {@link #openMongo()}
-     * to reopen the connection.
+     * The client is otherwise kept open between the calls. The next call that needs
+     * the database reopens it with {@link #openMongo()}.
      */
-    public void closeConnection() {
+    public synchronized void closeConnection() {
         if (mongoClient == null) return;
         mongoClient.close();
         this.isClosed = true;
@@ -358,6 +359,15 @@ public class MongoDB extends Database {
     }
 
 
+    /**
+     * Closes the MongoDB connection and the resources held by this instance.
+     */
+    @Override
+    public void close() {
+        this.closeConnection();
+        super.close();
+    }
+
     @Override
     public boolean usingHikari() {
         return false;
@@ -376,28 +386,67 @@ public class MongoDB extends Database {
     }
 
     /**
-     * Saves the given {@link DataWrapper} to the specified MongoDB collection.
-     * Updates the document if it exists, otherwise inserts a new document.
+     * Saves the given {@link DataWrapper}s to the specified MongoDB collection.
+     * <p>
+     * Every wrapper becomes one update with upsert set, so the document is updated if it
+     * exists, otherwise inserted. When only some columns are updated, the other columns are
+     * set with {@code $setOnInsert}, so a new document still gets all columns. The updates are
+     * sent as unordered bulk writes, in batches of {@link #getBatchSize()}, so a failed document
+     * does not stop the rest of the batch.
+     * </p>
      *
-     * @param dataWrapper the data wrapper containing data to save
+     * @param dataWrappers the data wrappers containing data to save
      * @param tableWrapper the SQL query table metadata
+     * @param collection   the MongoDB collection to save into
+     * @param columns      the columns to update, or {@code null} or empty to save all columns.
+     */
+    private void saveData(final List<DataWrapper> dataWrappers, final SqlQueryTable tableWrapper, final MongoCollection<Document> collection, @Nullable final String[] columns) {
+        final List<String> columnsToUpdate = columns != null && columns.length > 0 ? Arrays.asList(columns) : null;
+        final UpdateOptions upsert = new UpdateOptions().upsert(true);
+        final BulkWriteOptions unordered = new BulkWriteOptions().ordered(false);
+        final int batchSize = this.getBatchSize();
+        final List<WriteModel<Document>> batch = new ArrayList<>(Math.min(batchSize, dataWrappers.size()));
+
+        for (DataWrapper dataWrapper : dataWrappers) {
+            final List<Bson> updates = new ArrayList<>();
+            final List<Bson> insertOnly = new ArrayList<>();
+            for (Entry<String, Object> entry : dataWrapper.getConfigurationSerialize().serialize().entrySet()) {
+                Column column = getColumn(tableWrapper, entry.getKey());
+
+                if (column == null) continue;
+                // The columns not updated are still written if the document is new, like the SQL insert does.
+                if (columnsToUpdate != null && !columnsToUpdate.contains(entry.getKey()))
+                    insertOnly.add(Updates.setOnInsert(entry.getKey(), entry.getValue()));
+                else
+                    updates.add(Updates.set(entry.getKey(), entry.getValue()));
+            }
+            if (updates.isEmpty()) continue;
+            updates.addAll(insertOnly);
+
+            batch.add(new UpdateOneModel<>(Filters.eq("_id", dataWrapper.getPrimaryValue()), Updates.combine(updates), upsert));
+            if (batch.size() >= batchSize) {
+                this.bulkWrite(collection, batch, unordered);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            this.bulkWrite(collection, batch, unordered);
+    }
+
+    /**
+     * Sends the batch to the database with one bulk write.
+     *
      * @param collection the MongoDB collection to save into
+     * @param batch      the updates to send.
+     * @param options    the bulk write options.
      */
-    private void saveData(final DataWrapper dataWrapper, final SqlQueryTable tableWrapper, final MongoCollection<Document> collection) {
-        Document document = new Document("_id", dataWrapper.getPrimaryValue());
-        Bson filter = Filters.eq("_id", dataWrapper.getPrimaryValue());
-
-        for (Entry<String, Object> entry : dataWrapper.getConfigurationSerialize().serialize().entrySet()) {
-            Column column = getColumn(tableWrapper,entry.getKey());
-
-            if (column == null) continue;
-            Bson updatedRow = Updates.set(entry.getKey(), entry.getValue());
-            UpdateResult updateResult = collection.updateOne(filter, updatedRow);
-            if (updateResult.getMatchedCount() == 0)
-                document.append(entry.getKey(), entry.getValue());
+    private void bulkWrite(final MongoCollection<Document> collection, final List<WriteModel<Document>> batch, final BulkWriteOptions options) {
+        try {
+            collection.bulkWrite(batch, options);
+        } catch (MongoException e) {
+            final int size = batch.size();
+            log.log(Level.WARNING, e, () -> "Failed to save a batch of " + size + " documents.");
         }
-        if (document.size() > 1)
-            collection.insertOne(document);
     }
 
     /**
@@ -131,7 +131,11 @@ public class MySQL extends SQLDatabaseQuery {
             String user = mysqlPreference.getUser();
             String password = mysqlPreference.getPassword();
             String extra = mysqlPreference.getQuery();
-            if (extra.isEmpty()) extra = "?useSSL=false&useUnicode=yes&characterEncoding=UTF-8&autoReconnect=" + true;
+            if (extra.isEmpty()) {
+                extra = "?useSSL=false&useUnicode=yes&characterEncoding=UTF-8&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&autoReconnect=" + true;
+                if (this.isUseCursorFetch())
+                    extra += "&useCursorFetch=" + true;
+            }
             connection = DriverManager.getConnection(startSQLUrl + hostAddress + ":" + port + "/" + databaseName + extra, user, password);
         }
 
@@ -166,6 +170,17 @@ public class MySQL extends SQLDatabaseQuery {
         return this.isHikariAvailable;
     }
 
+    /**
+     * Closes the connection pool, if HikariCP is used. A new pool is
+     * created the next time a connection is requested.
+     */
+    @Override
+    public void close() {
+        if (this.hikari != null)
+            this.hikari.close();
+        super.close();
+    }
+
     @Override
     public boolean hasConnectionFailed() {
         return hasCastException;
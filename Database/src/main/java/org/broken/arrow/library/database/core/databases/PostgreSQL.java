@@ -184,4 +184,15 @@ public class PostgreSQL extends SQLDatabaseQuery {
     public boolean usingHikari() {
         return this.isHikariAvailable;
     }
+
+    /**
+     * Closes the connection pool, if HikariCP is used. A new pool is
+     * created the next time a connection is requested.
+     */
+    @Override
+    public void close() {
+        if (this.hikari != null)
+            this.hikari.close();
+        super.close();
+    }
 }
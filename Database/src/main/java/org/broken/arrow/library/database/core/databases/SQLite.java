@@ -13,6 +13,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Properties;
 
 /**
  * Represents a SQLite database connection handler with optional HikariCP connection pooling support.
@@ -21,6 +22,11 @@ import java.sql.SQLException;
  * including the ability to connect directly via {@link DriverManager} or use HikariCP if available.
  * The database file location is resolved from the provided parent and optional child path components.
  * </p>
+ * <p>
+ * With HikariCP one pool is kept for the whole lifetime of this instance, call {@link #close()}
+ * when you no longer need the database. The pragmas like the journal mode can be changed with
+ * {@link #getConnectionSettings()}, the pool is recreated with the new values on the next connection.
+ * </p>
  *
  * <p>Example usage:</p>
  * <pre>
@@ -83,7 +89,7 @@ public class SQLite extends SQLDatabaseQuery {
         this.child = "";
         this.isHikariAvailable = isDriverFound(hikariClazzPath);
         this.loadDriver("org.sqlite.JDBC");
-        connect();
+        this.closeConnection(connect());
     }
 
     @Override
@@ -116,16 +122,48 @@ public class SQLite extends SQLDatabaseQuery {
     public Connection setupConnection() throws SQLException {
         Connection connection;
 
-        if (this.hikari == null)
-            hikari = new HikariCP(this, "org.sqlite.JDBC");
-        if (this.isHikariAvailable)
-            connection = this.hikari.getFileConnection("jdbc:sqlite:");
-        else
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getPath());
+        final Properties pragmas = this.getPragmas();
+        if (this.isHikariAvailable) {
+            if (this.hikari == null)
+                hikari = new HikariCP(this, "org.sqlite.JDBC");
+            connection = this.hikari.getFileConnection("jdbc:sqlite:", pragmas);
+        } else
+            connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getPath(), pragmas);
         hasCastException = false;
         return connection;
     }
 
+    /**
+     * Closes the connection pool, if HikariCP is used. A new pool is
+     * created the next time a connection is requested.
+     */
+    @Override
+    public void close() {
+        if (this.hikari != null)
+            this.hikari.close();
+        super.close();
+    }
+
+    /**
+     * Creates the pragmas set for every new connection, from the values set in
+     * {@link ConnectionSettings}.
+     *
+     * @return the pragmas passed on to the SQLite driver.
+     */
+    private Properties getPragmas() {
+        final ConnectionSettings connectionSettings = this.getConnectionSettings();
+        final Properties pragmas = new Properties();
+        if (connectionSettings.getJournalMode() != null)
+            pragmas.setProperty("journal_mode", connectionSettings.getJournalMode());
+        if (connectionSettings.getSynchronous() != null)
+            pragmas.setProperty("synchronous", connectionSettings.getSynchronous());
+        if (connectionSettings.getMmapSize() > 0)
+            pragmas.setProperty("mmap_size", String.valueOf(connectionSettings.getMmapSize()));
+        if (connectionSettings.getCacheSize() != 0)
+            pragmas.setProperty("cache_size", String.valueOf(connectionSettings.getCacheSize()));
+        return pragmas;
+    }
+
     @Override
     public boolean hasConnectionFailed() {
         return this.hasCastException;
@@ -7,6 +7,7 @@ import org.broken.arrow.library.database.builders.tables.SqlQueryTable;
 import org.broken.arrow.library.database.builders.wrappers.DatabaseQueryHandler;
 import org.broken.arrow.library.database.builders.wrappers.SaveRecord;
 import org.broken.arrow.library.database.construct.query.QueryBuilder;
+import org.broken.arrow.library.database.construct.query.QueryModifier;
 import org.broken.arrow.library.database.construct.query.builder.comparison.LogicalOperator;
 import org.broken.arrow.library.database.construct.query.builder.wherebuilder.WhereBuilder;
 import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
@@ -17,17 +18,24 @@ import org.broken.arrow.library.logging.Logging;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
@@ -98,17 +106,21 @@ public class BatchExecutor<T> {
             return;
         }
 
+        final boolean columnsIsEmpty = columns == null || columns.length == 0;
+        final boolean checkRowExist = !columnsIsEmpty || shallUpdate;
+        final ExistingRowResolver existingRows = checkRowExist ? this.resolveExistingRows(tableName, dataToSave ->
+                dataToSave instanceof DataWrapper ? this.getPrimaryKeyValues(table, (DataWrapper) dataToSave) : null) : null;
+
         for (T dataToSave : dataToProcess) {
             if (!(dataToSave instanceof DataWrapper)) continue;
 
             final DataWrapper dataWrapper = (DataWrapper) dataToSave;
 
             final SqlHandler sqlHandler = new SqlHandler(tableName, database);
-            final boolean columnsIsEmpty = columns == null || columns.length == 0;
             boolean canUpdateRow = false;
-            if ((!columnsIsEmpty || shallUpdate)) {
-                final SqlQueryPair query = sqlHandler.selectRow(columnManger -> columnManger.addAll(table.getPrimaryColumns()), true, whereBuilder -> table.createWhereClauseFromPrimaryColumns(whereBuilder, dataWrapper.getPrimaryValue()));
-                canUpdateRow = this.checkIfRowExist(query, false);
+            if (checkRowExist) {
+                canUpdateRow = this.isRowExisting(existingRows, this.getPrimaryKeyValues(table, dataWrapper), () ->
+                        sqlHandler.selectRow(columnManger -> columnManger.addAll(table.getPrimaryColumns()), true, whereBuilder -> table.createWhereClauseFromPrimaryColumns(whereBuilder, dataWrapper.getPrimaryValue())));
             }
             sqlHandler.setQueryPlaceholders(this.database.isSecureQuery());
 
@@ -138,18 +150,20 @@ public class BatchExecutor<T> {
             return;
         }
 
+        final boolean columnsFilterSet = databaseQueryHandler.isFilterSet();
+        final boolean checkRowExist = !columnsFilterSet || shallUpdate;
+        final ExistingRowResolver existingRows = checkRowExist ? this.resolveExistingRows(tableName, this::getSaveRecordKeyValues) : null;
+
         for (T dataToSave : this.dataToProcess) {
             final SaveRecord<K, V> saveRecord = getSaveRecord(dataToSave);
             final QueryBuilder queryBuilder = saveRecord != null ? saveRecord.getQueryBuilder(): null;
             if (saveRecord == null || queryBuilder == null || checkIfQuerySet(saveRecord, queryBuilder)) continue;
 
             final SqlHandler sqlHandler = new SqlHandler(tableName, database);
-            final boolean columnsFilterSet = databaseQueryHandler.isFilterSet();
             boolean canUpdateRow = false;
 
-            if ((!columnsFilterSet || shallUpdate)) {
-                final SqlQueryPair wrappedQuery = sqlHandler.wrapQuery(queryBuilder);
-                canUpdateRow = this.checkIfRowExist(wrappedQuery, false);
+            if (checkRowExist) {
+                canUpdateRow = this.isRowExisting(existingRows, this.getSaveRecordKeyValues(dataToSave), () -> sqlHandler.wrapQuery(queryBuilder));
             }
             Map<Column, Object> toSave = this.getColumns(databaseQueryHandler, saveRecord, canUpdateRow);
             queryList.add(this.databaseConfig.applyDatabaseCommand(sqlHandler, toSave, saveRecord.getWhereClause(), canUpdateRow));
@@ -347,6 +361,73 @@ public class BatchExecutor<T> {
         return false;
     }
 
+    /**
+     * Looks up which of the rows in this batch already exist, using one query per chunk
+     * instead of one query per row.
+     *
+     * @param tableName the table to look for existing rows in.
+     * @param keyValues function that returns the key columns and values for a row, or {@code null}
+     *                  if the row can't be looked up in bulk.
+     * @return the resolver with the result of the lookup.
+     */
+    @Nonnull
+    private ExistingRowResolver resolveExistingRows(@Nonnull final String tableName, @Nonnull final Function<T, Map<String, Object>> keyValues) {
+        final ExistingRowResolver existingRows = new ExistingRowResolver(this.database, this.connection, tableName, this.database.getExistenceCheckChunkSize());
+        for (T dataToSave : this.dataToProcess) {
+            existingRows.add(keyValues.apply(dataToSave));
+        }
+        if (!existingRows.resolve())
+            this.log.log(Level.WARNING, () -> "Could not look up the existing rows in bulk for this table: " + tableName + ". Will check every row on its own instead.");
+        return existingRows;
+    }
+
+    /**
+     * Checks if the row exist, either from the bulk lookup or, if the row could not be
+     * looked up in bulk, with a query for only this row.
+     *
+     * @param existingRows  the bulk lookup, may be {@code null}.
+     * @param keyValues     the key columns and values for this row, may be {@code null}.
+     * @param fallbackQuery the query used to check this row on its own.
+     * @return {@code true} if the row exists.
+     */
+    private boolean isRowExisting(@Nullable final ExistingRowResolver existingRows, @Nullable final Map<String, Object> keyValues, @Nonnull final Supplier<SqlQueryPair> fallbackQuery) {
+        if (existingRows != null && existingRows.isResolved(keyValues))
+            return existingRows.exists(keyValues);
+        return this.checkIfRowExist(fallbackQuery.get(), false);
+    }
+
+    /**
+     * Retrieve the primary key value for the row, it will only use the first primary column
+     * in the same way as {@link SqlQueryTable#createWhereClauseFromPrimaryColumns(WhereBuilder, Object...)}
+     * does with a single value.
+     *
+     * @param table       the table the row belongs to.
+     * @param dataWrapper the row to save.
+     * @return the primary column mapped to the primary value, or {@code null} if no primary column is set.
+     */
+    @Nullable
+    private Map<String, Object> getPrimaryKeyValues(@Nonnull final SqlQueryTable table, @Nonnull final DataWrapper dataWrapper) {
+        final List<Column> primaryColumns = table.getPrimaryColumns();
+        if (primaryColumns.isEmpty())
+            return null;
+        return Collections.singletonMap(primaryColumns.get(0).getColumnName(), dataWrapper.getPrimaryValue());
+    }
+
+    /**
+     * Retrieve the key values from the where clause set for the save record.
+     *
+     * @param dataToSave the record to save.
+     * @return the columns mapped to the values from the where clause, or {@code null} if it is
+     * not a save record or the where clause can't be looked up in bulk.
+     */
+    @Nullable
+    private Map<String, Object> getSaveRecordKeyValues(final T dataToSave) {
+        if (!(dataToSave instanceof SaveRecord<?, ?>)) return null;
+        final QueryModifier selectData = ((SaveRecord<?, ?>) dataToSave).getSelectData();
+        if (selectData == null) return null;
+        return ExistingRowResolver.toKeyValues(selectData.getWhereBuilder());
+    }
+
     /**
      * Checks if a row exists in the database using a provided SQL query.
      * <p>
@@ -395,7 +476,18 @@ public class BatchExecutor<T> {
 
     /**
      * Executes a list of SQL queries as batch operations against the database.
-     * Commits after every 100 queries and handles rollback on errors.
+     * <p>
+     * Queries with the same SQL text share one prepared statement, the rows are added to it
+     * and sent to the database every {@link Database#getBatchSize()} rows. The pending rows are
+     * also sent when the next query uses another SQL text, so the queries run in the order they
+     * are in the list. All pending rows are sent and committed every
+     * {@link Database#getCommitInterval()} rows, and on errors the changes are rolled back.
+     * </p>
+     * <p>
+     * If the database rejects a row in a batch, the batch is rolled back to where it started
+     * and the rows are sent one by one, so only the rows that fail are skipped. The skipped
+     * rows are logged and counted in {@link BatchStatistics#getFailedRows()}.
+     * </p>
      *
      * @param composerList the list of SQL query pairs to execute.
      */
@@ -403,6 +495,8 @@ public class BatchExecutor<T> {
         batchUpdateGoingOn = true;
         final Connection databaseConnection = this.connection;
         final int processedCount = composerList.size();
+        final BatchStatistics statistics = new BatchStatistics();
+        final Map<String, PreparedBatch> preparedBatches = new LinkedHashMap<>();
 
         Timer timer = new Timer();
         timer.scheduleAtFixedRate(new TimerTask() {
@@ -415,17 +509,26 @@ public class BatchExecutor<T> {
 
         if (processedCount > 10_000)
             this.printPressesCount(processedCount);
+        statistics.start();
         try {
             databaseConnection.setAutoCommit(false);
-            int batchSize = 1;
+            final int batchSize = this.database.getBatchSize();
+            final int commitInterval = this.database.getCommitInterval();
+            int rowsSinceCommit = 0;
+            PreparedBatch lastBatch = null;
             for (SqlQueryPair sql : composerList) {
-                this.setPreparedStatement(sql);
+                lastBatch = this.addToBatch(preparedBatches, lastBatch, sql, batchSize, statistics);
 
-                if (batchSize % 100 == 0)
+                if (++rowsSinceCommit >= commitInterval) {
+                    this.flushBatches(preparedBatches.values(), statistics);
                     databaseConnection.commit();
-                batchSize++;
+                    statistics.addCommit();
+                    rowsSinceCommit = 0;
+                }
             }
+            this.flushBatches(preparedBatches.values(), statistics);
             databaseConnection.commit();
+            statistics.addCommit();
         } catch (SQLException e) {
             log.log(Level.WARNING, e, () -> "Error during batch execution. Rolling back changes.");
             try {
@@ -435,6 +538,8 @@ public class BatchExecutor<T> {
             }
             this.batchUpdateGoingOn = false;
         } finally {
+            this.closeBatches(preparedBatches.values());
+            statistics.stop();
             try {
                 databaseConnection.setAutoCommit(true);
             } catch (SQLException ex) {
@@ -448,28 +553,151 @@ public class BatchExecutor<T> {
                 this.batchUpdateGoingOn = false;
                 timer.cancel();
             }
+            this.publishStatistics(statistics);
+        }
+    }
+
+    /**
+     * Adds the query to the prepared statement used for the same SQL text, the statement
+     * is created the first time the SQL text is used. If the SQL text is not the same as for
+     * the last query, the pending rows of the last query are sent first. If the statement
+     * reach the batch size the pending rows are sent to the database.
+     *
+     * @param preparedBatches the prepared statements mapped by the SQL text.
+     * @param lastBatch       the prepared statement the last query was added to, or {@code null}.
+     * @param sql             the query and the values to add.
+     * @param batchSize       the amount of rows before the statement is sent to the database.
+     * @param statistics      the statistics for this batch.
+     * @return the prepared statement the query was added to, or {@code lastBatch} if it could not be added.
+     */
+    private PreparedBatch addToBatch(final Map<String, PreparedBatch> preparedBatches, final PreparedBatch lastBatch, final SqlQueryPair sql, final int batchSize, final BatchStatistics statistics) {
+        final Map<Integer, Object> cachedDataByColumn = sql.getValues();
+        PreparedBatch preparedBatch = preparedBatches.get(sql.getQuery());
+        if (lastBatch != null && lastBatch != preparedBatch)
+            this.flushBatch(lastBatch, statistics);
+        try {
+            if (preparedBatch == null) {
+                preparedBatch = new PreparedBatch(sql.getQuery(), connection.prepareStatement(sql.getQuery(), resultSetType, resultSetConcurrency));
+                preparedBatches.put(sql.getQuery(), preparedBatch);
+                statistics.addStatementPrepared();
+            }
+            preparedBatch.add(cachedDataByColumn);
+            statistics.addRow();
+        } catch (SQLException e) {
+            failedSetValuesBatch(sql.getQuery(), e, cachedDataByColumn.values());
+            return lastBatch;
+        } catch (ArrayIndexOutOfBoundsException exception) {
+            log.log(Level.WARNING, () -> "Could not execute this batch: \"" + sql.getQuery() + "\" . Probably this is not an premed batch with placeholders, check so the query contains ? for all values.");
+            return lastBatch;
         }
+        if (preparedBatch.pendingRows.size() >= batchSize)
+            this.flushBatch(preparedBatch, statistics);
+        return preparedBatch;
     }
 
-    private void setPreparedStatement(SqlQueryPair sql) throws SQLException {
+    /**
+     * Sends all pending rows in the prepared statements to the database.
+     *
+     * @param preparedBatches the prepared statements to flush.
+     * @param statistics      the statistics for this batch.
+     */
+    private void flushBatches(final Collection<PreparedBatch> preparedBatches, final BatchStatistics statistics) {
+        for (PreparedBatch preparedBatch : preparedBatches)
+            this.flushBatch(preparedBatch, statistics);
+    }
 
-        Map<Integer, Object> cachedDataByColumn = sql.getValues();
-        try (PreparedStatement statement = connection.prepareStatement(sql.getQuery(), resultSetType, resultSetConcurrency)) {
-            boolean valuesSet = false;
+    /**
+     * Sends the pending rows in the prepared statement to the database. If one of the rows
+     * is rejected, the batch is rolled back and the rows are sent one by one instead.
+     *
+     * @param preparedBatch the prepared statement to flush.
+     * @param statistics    the statistics for this batch.
+     */
+    private void flushBatch(final PreparedBatch preparedBatch, final BatchStatistics statistics) {
+        if (preparedBatch.pendingRows.isEmpty()) return;
+        final Savepoint savepoint = this.setSavepoint();
+        try {
+            preparedBatch.statement.executeBatch();
+            statistics.addFlush();
+        } catch (SQLException e) {
+            statistics.addFailedFlush();
+            if (e instanceof BatchUpdateException && this.rollbackTo(savepoint)) {
+                log.log(Level.WARNING, () -> "A row in the prepared batch was rejected, retrying the " + preparedBatch.pendingRows.size() + " rows one by one for this query: " + preparedBatch.query);
+                this.executeRows(preparedBatch, statistics);
+            } else {
+                statistics.addFailedRows(preparedBatch.pendingRows.size());
+                failedSetValuesBatch(preparedBatch.query, e, preparedBatch.pendingRows);
+            }
+        } finally {
+            preparedBatch.pendingRows.clear();
+        }
+    }
 
-            if (!cachedDataByColumn.isEmpty()) {
-                for (Map.Entry<Integer, Object> column : cachedDataByColumn.entrySet()) {
+    /**
+     * Sends the pending rows in the prepared statement one by one, the rows that fail are
+     * rolled back, logged and skipped.
+     *
+     * @param preparedBatch the prepared statement with the rows to send.
+     * @param statistics    the statistics for this batch.
+     */
+    private void executeRows(final PreparedBatch preparedBatch, final BatchStatistics statistics) {
+        final PreparedStatement statement = preparedBatch.statement;
+        try {
+            statement.clearBatch();
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to clear the prepared batch for this query: " + preparedBatch.query);
+        }
+        for (Map<Integer, Object> row : preparedBatch.pendingRows) {
+            final Savepoint savepoint = this.setSavepoint();
+            try {
+                for (Map.Entry<Integer, Object> column : row.entrySet())
                     statement.setObject(column.getKey(), column.getValue());
-                    valuesSet = true;
-                }
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                this.rollbackTo(savepoint);
+                statistics.addFailedRows(1);
+                failedSetValuesBatch(preparedBatch.query, e, row.values());
             }
-            if (valuesSet)
-                statement.addBatch();
-            statement.executeBatch();
+        }
+    }
+
+    @Nullable
+    private Savepoint setSavepoint() {
+        try {
+            return this.connection.setSavepoint();
         } catch (SQLException e) {
-            failedSetValuesBatch(sql.getQuery(), e, cachedDataByColumn);
-        } catch (ArrayIndexOutOfBoundsException exception) {
-            log.log(Level.WARNING, () -> "Could not execute this batch: \"" + sql.getQuery() + "\" . Probably this is not an premed batch with placeholders, check so the query contains ? for all values.");
+            return null;
+        }
+    }
+
+    private boolean rollbackTo(@Nullable final Savepoint savepoint) {
+        if (savepoint == null) return false;
+        try {
+            this.connection.rollback(savepoint);
+            return true;
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Failed to rollback to the savepoint before the prepared batch.");
+            return false;
+        }
+    }
+
+    private void closeBatches(final Collection<PreparedBatch> preparedBatches) {
+        for (PreparedBatch preparedBatch : preparedBatches) {
+            try {
+                preparedBatch.statement.close();
+            } catch (SQLException e) {
+                log.log(Level.WARNING, e, () -> "Failed to close the prepared statement for this query: " + preparedBatch.query);
+            }
+        }
+    }
+
+    private void publishStatistics(final BatchStatistics statistics) {
+        final Consumer<BatchStatistics> listener = this.database.getBatchStatisticsListener();
+        if (listener == null) return;
+        try {
+            listener.accept(statistics);
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, e, () -> "The batch statistics listener failed to handle: " + statistics);
         }
     }
 
@@ -486,9 +714,9 @@ public class BatchExecutor<T> {
         return object != null;
     }
 
-    private void failedSetValuesBatch(String sql, SQLException e, Map<Integer, Object> cachedDataByColumn) {
+    private void failedSetValuesBatch(String sql, SQLException e, Collection<?> values) {
         log.log(Level.WARNING, () -> "Could not execute this prepared batch: \"" + sql + "\"");
-        log.log(e, () -> "Values that could not be executed: '" + cachedDataByColumn.values() + "'");
+        log.log(e, () -> "Values that could not be executed: '" + values + "'");
     }
 
     private void failedCloseConnection(SQLException e) {
@@ -542,4 +770,25 @@ public class BatchExecutor<T> {
         return toSave;
     }
 
+    /**
+     * A prepared statement shared by all rows using the same SQL text.
+     */
+    private static class PreparedBatch {
+        private final String query;
+        private final PreparedStatement statement;
+        private final List<Map<Integer, Object>> pendingRows = new ArrayList<>();
+
+        private PreparedBatch(final String query, final PreparedStatement statement) {
+            this.query = query;
+            this.statement = statement;
+        }
+
+        private void add(final Map<Integer, Object> values) throws SQLException {
+            for (Map.Entry<Integer, Object> column : values.entrySet())
+                this.statement.setObject(column.getKey(), column.getValue());
+            this.statement.addBatch();
+            this.pendingRows.add(values);
+        }
+    }
+
 }
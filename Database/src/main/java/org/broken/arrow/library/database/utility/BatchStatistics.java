@@ -0,0 +1,141 @@
+package org.broken.arrow.library.database.utility;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics collected while a {@link BatchExecutor} writes a batch to the database.
+ * <p>
+ * Use it to verify how well the rows are grouped, for example compare the amount of
+ * rows with the amount of prepared statements and flushes. With MySQL you also need
+ * {@code rewriteBatchedStatements=true} in the connection query to make the driver
+ * send every flush as one multi-row statement.
+ * </p>
+ */
+public final class BatchStatistics {
+
+    private int rows;
+    private int statementsPrepared;
+    private int flushCount;
+    private int commitCount;
+    private int failedFlushes;
+    private int failedRows;
+    private long startTime;
+    private long elapsedNanos;
+
+    /**
+     * Creates a new empty statistics instance.
+     */
+    BatchStatistics() {
+    }
+
+    void start() {
+        this.startTime = System.nanoTime();
+    }
+
+    void stop() {
+        this.elapsedNanos = System.nanoTime() - this.startTime;
+    }
+
+    void addRow() {
+        this.rows++;
+    }
+
+    void addStatementPrepared() {
+        this.statementsPrepared++;
+    }
+
+    void addFlush() {
+        this.flushCount++;
+    }
+
+    void addCommit() {
+        this.commitCount++;
+    }
+
+    void addFailedFlush() {
+        this.failedFlushes++;
+    }
+
+    void addFailedRows(final int amount) {
+        this.failedRows += amount;
+    }
+
+    /**
+     * Retrieve the amount of rows added to the batch.
+     *
+     * @return the amount of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieve the amount of prepared statements created, one for every unique SQL
+     * query in the batch.
+     *
+     * @return the amount of prepared statements.
+     */
+    public int getStatementsPrepared() {
+        return statementsPrepared;
+    }
+
+    /**
+     * Retrieve how many times a prepared statement was sent to the database
+     * with {@code executeBatch()}.
+     *
+     * @return the amount of flushes.
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Retrieve how many times the changes were committed.
+     *
+     * @return the amount of commits.
+     */
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * Retrieve how many of the flushes failed.
+     *
+     * @return the amount of failed flushes.
+     */
+    public int getFailedFlushes() {
+        return failedFlushes;
+    }
+
+    /**
+     * Retrieve the amount of rows that could not be written, also after the failed
+     * flushes were retried one row at the time.
+     *
+     * @return the amount of failed rows.
+     */
+    public int getFailedRows() {
+        return failedRows;
+    }
+
+    /**
+     * Retrieve the time it took to execute the whole batch.
+     *
+     * @return the elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStatistics{" +
+                "rows=" + rows +
+                ", statementsPrepared=" + statementsPrepared +
+                ", flushCount=" + flushCount +
+                ", commitCount=" + commitCount +
+                ", failedFlushes=" + failedFlushes +
+                ", failedRows=" + failedRows +
+                ", elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,295 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.database.builders.LoadDataWrapper;
+import org.broken.arrow.library.logging.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for single rows loaded by the primary value, placed in front of
+ * {@link org.broken.arrow.library.database.core.Database#load(String, Class, String)}.
+ * <p>
+ * The cache is turned off for all tables by default, use {@link #enable(String, int, long, TimeUnit)}
+ * for the tables where you load the same rows often, like player profiles. Every table holds at
+ * most the set amount of rows, the least recently used row is removed first, and a row is loaded
+ * again from the database when it is older than the set time to live.
+ * </p>
+ * <p>
+ * The rows are removed from the cache when they are saved or removed through the same
+ * {@code Database} instance. Changes done outside this instance, like from another server, are
+ * only seen after the time to live has passed.
+ * </p>
+ * <p>
+ * Note: the same deserialized instance is returned to every caller until it is removed from the
+ * cache, so treat it as read-only or save it after you modified it.
+ * </p>
+ */
+public final class EntityCache {
+
+    private final Map<String, TableCache> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Turns on the cache for the table. If the cache is already on, the old rows are removed and
+     * the new settings are used.
+     *
+     * @param tableName  the name of the table.
+     * @param maxSize    the maximum amount of rows to keep, must be above zero.
+     * @param timeToLive how long a row is kept before it is loaded again, must be above zero.
+     * @param unit       the time unit for the time to live.
+     */
+    public void enable(@Nonnull final String tableName, final int maxSize, final long timeToLive, @Nonnull final TimeUnit unit) {
+        Validate.checkBoolean(maxSize < 1, "The max size must be above zero, you set: " + maxSize);
+        Validate.checkBoolean(timeToLive < 1, "The time to live must be above zero, you set: " + timeToLive);
+        this.tables.put(tableName, new TableCache(maxSize, unit.toNanos(timeToLive)));
+    }
+
+    /**
+     * Turns off the cache for the table and removes the cached rows.
+     *
+     * @param tableName the name of the table.
+     */
+    public void disable(@Nonnull final String tableName) {
+        this.tables.remove(tableName);
+    }
+
+    /**
+     * Check if the cache is turned on for the table.
+     *
+     * @param tableName the name of the table.
+     * @return {@code true} if the rows from this table are cached.
+     */
+    public boolean isEnabled(@Nonnull final String tableName) {
+        return this.tables.containsKey(tableName);
+    }
+
+    /**
+     * Retrieve the row from the cache, or load it with the loader and cache it if it is missing
+     * or expired. If the cache is off for this table, the loader is always used.
+     * <p>
+     * Rows not found in the database are not cached.
+     *
+     * @param tableName    the name of the table.
+     * @param clazz        the class the row is deserialized to.
+     * @param primaryValue the primary value of the row.
+     * @param loader       loads the row from the database.
+     * @param <T>          the type of the deserialized row.
+     * @return the row or {@code null} if the loader did not find it.
+     */
+    @Nullable
+    public <T> LoadDataWrapper<T> load(@Nonnull final String tableName, @Nonnull final Class<T> clazz, @Nonnull final String primaryValue, @Nonnull final Supplier<LoadDataWrapper<T>> loader) {
+        final TableCache tableCache = this.tables.get(tableName);
+        if (tableCache == null)
+            return loader.get();
+
+        final LoadDataWrapper<T> cached = tableCache.get(clazz, primaryValue);
+        if (cached != null)
+            return cached;
+
+        final long version = tableCache.getVersion();
+        final LoadDataWrapper<T> loaded = loader.get();
+        if (loaded != null)
+            tableCache.put(clazz, primaryValue, loaded, version);
+        return loaded;
+    }
+
+    /**
+     * Removes the row from the cache.
+     *
+     * @param tableName    the name of the table.
+     * @param primaryValue the primary value of the row, it is compared by its string value.
+     */
+    public void invalidate(@Nonnull final String tableName, @Nullable final Object primaryValue) {
+        final TableCache tableCache = this.tables.get(tableName);
+        if (tableCache != null)
+            tableCache.invalidate(String.valueOf(primaryValue));
+    }
+
+    /**
+     * Removes the rows from the cache.
+     *
+     * @param tableName     the name of the table.
+     * @param primaryValues the primary values of the rows, they are compared by their string value.
+     */
+    public void invalidate(@Nonnull final String tableName, @Nonnull final Collection<?> primaryValues) {
+        final TableCache tableCache = this.tables.get(tableName);
+        if (tableCache == null) return;
+        for (Object primaryValue : primaryValues)
+            tableCache.invalidate(String.valueOf(primaryValue));
+    }
+
+    /**
+     * Removes all cached rows for the table, the cache stays turned on.
+     *
+     * @param tableName the name of the table.
+     */
+    public void invalidateAll(@Nonnull final String tableName) {
+        final TableCache tableCache = this.tables.get(tableName);
+        if (tableCache != null)
+            tableCache.clear();
+    }
+
+    /**
+     * Removes all cached rows for every table, the cache stays turned on.
+     */
+    public void clear() {
+        for (TableCache tableCache : this.tables.values())
+            tableCache.clear();
+    }
+
+    /**
+     * Retrieve the amount of rows cached for the table.
+     *
+     * @param tableName the name of the table.
+     * @return the amount of rows, or 0 if the cache is off.
+     */
+    public int getSize(@Nonnull final String tableName) {
+        final TableCache tableCache = this.tables.get(tableName);
+        return tableCache != null ? tableCache.size() : 0;
+    }
+
+    /**
+     * Retrieve how many times a row was found in the cache.
+     *
+     * @param tableName the name of the table.
+     * @return the amount of hits, or 0 if the cache is off.
+     */
+    public long getHits(@Nonnull final String tableName) {
+        final TableCache tableCache = this.tables.get(tableName);
+        return tableCache != null ? tableCache.getHits() : 0;
+    }
+
+    /**
+     * Retrieve how many times a row had to be loaded from the database.
+     *
+     * @param tableName the name of the table.
+     * @return the amount of misses, or 0 if the cache is off.
+     */
+    public long getMisses(@Nonnull final String tableName) {
+        final TableCache tableCache = this.tables.get(tableName);
+        return tableCache != null ? tableCache.getMisses() : 0;
+    }
+
+    /**
+     * Retrieve how many rows was removed because the cache was full or the row expired.
+     * Rows removed by a save or remove are not counted.
+     *
+     * @param tableName the name of the table.
+     * @return the amount of evictions, or 0 if the cache is off.
+     */
+    public long getEvictions(@Nonnull final String tableName) {
+        final TableCache tableCache = this.tables.get(tableName);
+        return tableCache != null ? tableCache.getEvictions() : 0;
+    }
+
+    private static final class TableCache {
+        private final Map<String, Entry> rows;
+        private final long timeToLiveNanos;
+        private long version;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        private TableCache(final int maxSize, final long timeToLiveNanos) {
+            this.timeToLiveNanos = timeToLiveNanos;
+            this.rows = new LinkedHashMap<String, Entry>(16, 0.75F, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                    if (size() <= maxSize) return false;
+                    evictions++;
+                    return true;
+                }
+            };
+        }
+
+        @Nullable
+        private synchronized <T> LoadDataWrapper<T> get(final Class<T> clazz, final String primaryValue) {
+            final Entry entry = this.rows.get(primaryValue);
+            if (entry == null || entry.clazz != clazz) {
+                this.misses++;
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt > this.timeToLiveNanos) {
+                this.rows.remove(primaryValue);
+                this.evictions++;
+                this.misses++;
+                return null;
+            }
+            this.hits++;
+            @SuppressWarnings("unchecked") final LoadDataWrapper<T> row = (LoadDataWrapper<T>) entry.row;
+            return row;
+        }
+
+        private synchronized void put(final Class<?> clazz, final String primaryValue, final LoadDataWrapper<?> row, final long loadVersion) {
+            // A save or remove happened while the row was loaded, so it may already be outdated.
+            if (loadVersion != this.version) return;
+            this.rows.put(primaryValue, new Entry(clazz, row, System.nanoTime()));
+            this.removeExpired();
+        }
+
+        private synchronized void invalidate(final String primaryValue) {
+            this.version++;
+            this.rows.remove(primaryValue);
+        }
+
+        private synchronized void clear() {
+            this.version++;
+            this.rows.clear();
+        }
+
+        private synchronized long getVersion() {
+            return version;
+        }
+
+        private synchronized int size() {
+            return rows.size();
+        }
+
+        private synchronized long getHits() {
+            return hits;
+        }
+
+        private synchronized long getMisses() {
+            return misses;
+        }
+
+        private synchronized long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * The rows are ordered from least recently used, so stop at the first row not expired.
+         * Rows still in use are removed when they are read.
+         */
+        private void removeExpired() {
+            final long now = System.nanoTime();
+            final Iterator<Entry> iterator = this.rows.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().loadedAt <= this.timeToLiveNanos) break;
+                iterator.remove();
+                this.evictions++;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Class<?> clazz;
+        private final LoadDataWrapper<?> row;
+        private final long loadedAt;
+
+        private Entry(final Class<?> clazz, final LoadDataWrapper<?> row, final long loadedAt) {
+            this.clazz = clazz;
+            this.row = row;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.database.builders.tables.SqlHandler;
+import org.broken.arrow.library.database.builders.tables.SqlQueryPair;
+import org.broken.arrow.library.database.construct.query.builder.comparison.ComparisonHandler;
+import org.broken.arrow.library.database.construct.query.builder.comparison.LogicalOperator;
+import org.broken.arrow.library.database.construct.query.builder.wherebuilder.WhereBuilder;
+import org.broken.arrow.library.database.construct.query.columnbuilder.ColumnManager;
+import org.broken.arrow.library.database.construct.query.utlity.LogicalOperators;
+import org.broken.arrow.library.database.core.Database;
+import org.broken.arrow.library.logging.Logging;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Resolves which rows already exist in a table for a whole batch at once.
+ * <p>
+ * Instead of running one {@code SELECT} per row before deciding between INSERT and UPDATE,
+ * the keys for all rows are registered first and then looked up in chunks with
+ * {@code SELECT key_columns FROM table WHERE column IN (?, ?, ...)}. The returned key
+ * values are matched in memory, so the existence check costs one query per chunk instead
+ * of one query per row.
+ * </p>
+ * <p>
+ * The database may compare the values in another way than Java does, for example with a case
+ * insensitive collation. A key that is not matched in memory, but could match a returned row
+ * with a looser compare, is not resolved, so the caller checks that row on its own. A key is
+ * only reported as missing when the database did not return any row it could match.
+ * </p>
+ * <p>
+ * Only keys built from plain equality conditions combined with {@code AND} can be resolved
+ * this way. For any other where clause {@link #add(Map)} returns {@code false} and the caller
+ * should fall back to check that row on its own.
+ * </p>
+ */
+public class ExistingRowResolver {
+    private final Logging log = new Logging(ExistingRowResolver.class);
+    private final Map<List<String>, KeyGroup> keyGroups = new LinkedHashMap<>();
+    private final Database database;
+    private final Connection connection;
+    private final String tableName;
+    private final int chunkSize;
+    private boolean resolved;
+
+    /**
+     * Creates a new resolver for the given table.
+     *
+     * @param database   the database instance the table belongs to.
+     * @param connection the open connection to run the lookups on, it will not be closed by this class.
+     * @param tableName  the table to look for existing rows in.
+     * @param chunkSize  the maximum amount of placeholders used in a single lookup query.
+     */
+    public ExistingRowResolver(@Nonnull final Database database, @Nonnull final Connection connection, @Nonnull final String tableName, final int chunkSize) {
+        this.database = database;
+        this.connection = connection;
+        this.tableName = tableName;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Converts a where clause into a key map, if the where clause only consists of
+     * equality conditions with a single value combined with {@code AND}.
+     *
+     * @param whereBuilder the where clause to convert.
+     * @return the column names mapped to the value they should match, or {@code null} if
+     * the where clause can't be resolved in bulk.
+     */
+    @Nullable
+    public static Map<String, Object> toKeyValues(@Nullable final WhereBuilder whereBuilder) {
+        if (whereBuilder == null || whereBuilder.isEmpty()) return null;
+
+        final List<ComparisonHandler<WhereBuilder>> conditions = whereBuilder.getConditionsList();
+        final Map<String, Object> keyValues = new LinkedHashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            final ComparisonHandler<WhereBuilder> condition = conditions.get(i);
+            if (condition == null || condition.getSubqueryHandler() != null) return null;
+            if (!LogicalOperators.EQUALS.getSymbol().equals(condition.getSymbol())) return null;
+            if (condition.getValues().length != 1 || condition.getValues()[0] == null) return null;
+
+            final LogicalOperators operator = condition.getLogicalOperator().getConditionQuery().getLogicalOperator();
+            final boolean lastCondition = i + 1 == conditions.size();
+            if (lastCondition ? operator != null : operator != LogicalOperators.AND) return null;
+
+            keyValues.put(condition.getColumn(), condition.getValues()[0]);
+        }
+        return keyValues;
+    }
+
+    /**
+     * Register a row to look up.
+     *
+     * @param keyValues the key columns mapped to the values identifying the row.
+     * @return {@code true} if the key could be registered, {@code false} if it is empty or contains null values.
+     */
+    public boolean add(@Nullable final Map<String, Object> keyValues) {
+        if (keyValues == null || keyValues.isEmpty()) return false;
+        for (Object value : keyValues.values()) {
+            if (value == null) return false;
+        }
+        final List<String> columns = new ArrayList<>(keyValues.keySet());
+        this.keyGroups.computeIfAbsent(columns, KeyGroup::new).add(keyValues);
+        return true;
+    }
+
+    /**
+     * Runs the chunked lookups for every registered key.
+     *
+     * @return {@code true} if all lookups succeeded, {@code false} if one of the queries failed.
+     */
+    public boolean resolve() {
+        for (KeyGroup keyGroup : this.keyGroups.values()) {
+            final int rowsPerChunk = Math.max(1, this.chunkSize / keyGroup.columns.size());
+            final List<List<Object>> rows = keyGroup.rows;
+            for (int start = 0; start < rows.size(); start += rowsPerChunk) {
+                final List<List<Object>> chunk = rows.subList(start, Math.min(rows.size(), start + rowsPerChunk));
+                if (!this.resolveChunk(keyGroup, chunk))
+                    return false;
+            }
+        }
+        this.resolved = true;
+        return true;
+    }
+
+    /**
+     * Checks if this key was registered and looked up successfully, so {@link #exists(Map)}
+     * can be trusted for it. A key is not resolved if it was not found in memory, but the
+     * database may still see it as the same value as one of the returned rows.
+     *
+     * @param keyValues the key columns mapped to the values identifying the row.
+     * @return {@code true} if the lookup for this key is done.
+     */
+    public boolean isResolved(@Nullable final Map<String, Object> keyValues) {
+        if (!this.resolved || keyValues == null || keyValues.isEmpty()) return false;
+        final KeyGroup keyGroup = this.keyGroups.get(new ArrayList<>(keyValues.keySet()));
+        if (keyGroup == null) return false;
+        final List<String> key = normalize(keyValues.values());
+        return keyGroup.registeredRows.contains(key) && !keyGroup.uncertainRows.contains(key);
+    }
+
+    /**
+     * Checks if the row with this key was found by {@link #resolve()}.
+     *
+     * @param keyValues the key columns mapped to the values identifying the row.
+     * @return {@code true} if the row exists in the table.
+     */
+    public boolean exists(@Nullable final Map<String, Object> keyValues) {
+        if (keyValues == null || keyValues.isEmpty()) return false;
+        final KeyGroup keyGroup = this.keyGroups.get(new ArrayList<>(keyValues.keySet()));
+        return keyGroup != null && keyGroup.existingRows.contains(normalize(keyValues.values()));
+    }
+
+    private boolean resolveChunk(final KeyGroup keyGroup, final List<List<Object>> chunk) {
+        final List<String> columns = keyGroup.columns;
+        final SqlHandler sqlHandler = new SqlHandler(this.tableName, this.database);
+        final SqlQueryPair query = sqlHandler.selectRow(columnManager -> addColumns(columnManager, columns), true, whereBuilder -> {
+            LogicalOperator<WhereBuilder> logicalOperator = null;
+            for (int i = 0; i < columns.size(); i++) {
+                if (logicalOperator != null)
+                    logicalOperator.and();
+                logicalOperator = whereBuilder.where(columns.get(i)).in(distinctValues(chunk, i).toArray());
+            }
+            return logicalOperator;
+        });
+
+        try (PreparedStatement preparedStatement = this.connection.prepareStatement(query.getQuery())) {
+            for (Map.Entry<Integer, Object> value : query.getValues().entrySet())
+                preparedStatement.setObject(value.getKey(), value.getValue());
+
+            final Set<List<String>> looseRows = new HashSet<>();
+            boolean unmatchedRow = false;
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    final List<Object> row = new ArrayList<>(columns.size());
+                    for (int i = 1; i <= columns.size(); i++)
+                        row.add(resultSet.getObject(i));
+                    final List<String> existingRow = normalize(row);
+                    keyGroup.existingRows.add(existingRow);
+                    looseRows.add(normalizeLoose(row));
+                    if (!keyGroup.registeredRows.contains(existingRow))
+                        unmatchedRow = true;
+                }
+            }
+            // With one key column every returned row should match a registered key, if not the
+            // database compared the values in another way, so the missing keys can't be trusted.
+            final boolean trustMissing = !unmatchedRow || columns.size() > 1;
+            for (List<Object> row : chunk) {
+                final List<String> key = normalize(row);
+                if (keyGroup.existingRows.contains(key)) continue;
+                if (!trustMissing || looseRows.contains(normalizeLoose(row)))
+                    keyGroup.uncertainRows.add(key);
+            }
+        } catch (SQLException e) {
+            log.log(Level.WARNING, e, () -> "Could not look up existing rows in table '" + this.tableName + "' with this query '" + query.getQuery() + "'.");
+            return false;
+        }
+        return true;
+    }
+
+    private static void addColumns(final ColumnManager columnManager, final List<String> columns) {
+        for (String column : columns)
+            columnManager.column(column);
+    }
+
+    private static List<Object> distinctValues(final List<List<Object>> chunk, final int columnIndex) {
+        final Map<String, Object> values = new LinkedHashMap<>();
+        for (List<Object> row : chunk) {
+            final Object value = row.get(columnIndex);
+            values.putIfAbsent(String.valueOf(value), value);
+        }
+        return new ArrayList<>(values.values());
+    }
+
+    /**
+     * The database may return another type than the one used when the row was saved, for example
+     * a {@code Long} for an {@code Integer}, a {@code BigDecimal} with decimals for a whole number or
+     * a {@code String} for an {@code UUID}. Numbers are compared by their value, booleans as
+     * {@code 1} or {@code 0} and everything else by their string representation.
+     *
+     * @param values the values to normalize.
+     * @return the normalized values.
+     */
+    private static List<String> normalize(final Iterable<Object> values) {
+        final List<String> normalized = new ArrayList<>();
+        for (Object value : values)
+            normalized.add(normalize(value));
+        return normalized;
+    }
+
+    private static String normalize(final Object value) {
+        if (value instanceof Boolean)
+            return ((Boolean) value) ? "1" : "0";
+        if (value instanceof Number) {
+            try {
+                final BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+                return number.signum() == 0 ? "0" : number.stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException ignore) {
+                // NaN and infinity have no decimal value.
+            }
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Normalize the values the way a lenient collation compares them, ignoring case, accents
+     * and trailing spaces. Used to find keys the database may see as the same row.
+     *
+     * @param values the values to normalize.
+     * @return the normalized values.
+     */
+    private static List<String> normalizeLoose(final Iterable<Object> values) {
+        final List<String> normalized = new ArrayList<>();
+        for (Object value : values) {
+            String text = Normalizer.normalize(normalize(value), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            int end = text.length();
+            while (end > 0 && text.charAt(end - 1) == ' ')
+                end--;
+            normalized.add(text.substring(0, end).toLowerCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+
+    private static class KeyGroup {
+        private final List<String> columns;
+        private final List<List<Object>> rows = new ArrayList<>();
+        private final Set<List<String>> registeredRows = new HashSet<>();
+        private final Set<List<String>> existingRows = new HashSet<>();
+        private final Set<List<String>> uncertainRows = new HashSet<>();
+
+        private KeyGroup(final List<String> columns) {
+            this.columns = columns;
+        }
+
+        private void add(final Map<String, Object> keyValues) {
+            final List<Object> row = new ArrayList<>(keyValues.values());
+            if (this.registeredRows.add(normalize(row)))
+                this.rows.add(row);
+        }
+    }
+
+}
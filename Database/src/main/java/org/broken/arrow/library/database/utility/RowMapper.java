@@ -0,0 +1,185 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.database.construct.query.columnbuilder.Column;
+
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Maps the rows of a {@link ResultSet} to column name and value pairs.
+ * <p>
+ * Create it once per query with {@link #of(ResultSet, List)} before you iterate the rows. The
+ * result set metadata is read only once, and the column names are resolved to the casing set in
+ * your table columns, as some databases return them in uppercase. Mapping a row is then only a
+ * matter of reading the values by index.
+ * </p>
+ */
+public final class RowMapper {
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndexes;
+    private final int mapCapacity;
+
+    private RowMapper(final String[] columnNames) {
+        this.columnNames = columnNames;
+        this.mapCapacity = (int) (columnNames.length / 0.75F) + 1;
+        final Map<String, Integer> indexes = new HashMap<>(this.mapCapacity);
+        for (int i = 0; i < columnNames.length; i++)
+            indexes.put(columnNames[i], i);
+        this.columnIndexes = Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Creates a row mapper for the result set.
+     *
+     * @param resultSet the result set of the query.
+     * @param columns   the columns with the name casing you want to use. If a column from the result
+     *                  set is not in this list, the name from the database is used.
+     * @return a new row mapper for this query.
+     * @throws SQLException if the metadata could not be read.
+     */
+    @Nonnull
+    public static RowMapper of(@Nonnull final ResultSet resultSet, @Nonnull final List<Column> columns) throws SQLException {
+        final Map<String, String> canonicalNames = new HashMap<>((int) (columns.size() / 0.75F) + 1);
+        for (Column column : columns)
+            canonicalNames.putIfAbsent(column.getColumnName().toLowerCase(Locale.ROOT), column.getColumnName());
+
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        final String[] columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            final String columnName = metaData.getColumnName(i + 1);
+            columnNames[i] = canonicalNames.getOrDefault(columnName.toLowerCase(Locale.ROOT), columnName);
+        }
+        return new RowMapper(columnNames);
+    }
+
+    /**
+     * Reads the current row into a new map.
+     *
+     * @param resultSet the result set positioned on the row to read.
+     * @return a modifiable map with the column names and values.
+     * @throws SQLException if a value could not be read.
+     */
+    @Nonnull
+    public Map<String, Object> toMap(@Nonnull final ResultSet resultSet) throws SQLException {
+        final Map<String, Object> row = new HashMap<>(this.mapCapacity);
+        for (int i = 0; i < this.columnNames.length; i++)
+            row.put(this.columnNames[i], resultSet.getObject(i + 1));
+        return row;
+    }
+
+    /**
+     * Reads the current row into a read-only map backed by an array. The column lookup is
+     * shared with every row from this query, so only the values are allocated per row.
+     * <p>
+     * Use {@link #toMap(ResultSet)} instead if the map needs to be modified.
+     *
+     * @param resultSet the result set positioned on the row to read.
+     * @return a read-only map with the column names and values.
+     * @throws SQLException if a value could not be read.
+     */
+    @Nonnull
+    public Map<String, Object> toView(@Nonnull final ResultSet resultSet) throws SQLException {
+        final Object[] values = new Object[this.columnNames.length];
+        for (int i = 0; i < values.length; i++)
+            values[i] = resultSet.getObject(i + 1);
+        return new RowView(values);
+    }
+
+    /**
+     * Retrieve the amount of columns in the result.
+     *
+     * @return the amount of columns.
+     */
+    public int getColumnCount() {
+        return this.columnNames.length;
+    }
+
+    /**
+     * Retrieve the resolved column name.
+     *
+     * @param index the column index, starting from 1 like JDBC does.
+     * @return the column name.
+     */
+    @Nonnull
+    public String getColumnName(final int index) {
+        return this.columnNames[index - 1];
+    }
+
+    /**
+     * A read-only map over the values of one row.
+     */
+    private final class RowView extends AbstractMap<String, Object> {
+        private final Object[] values;
+
+        private RowView(final Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            final Integer index = columnIndexes.get(key);
+            return index != null ? this.values[index] : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return columnIndexes.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return columnIndexes.size();
+        }
+
+        @Nonnull
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Nonnull
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int index = this.nextIndex(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.index < columnNames.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            final Entry<String, Object> entry = new SimpleImmutableEntry<>(columnNames[this.index], values[this.index]);
+                            this.index = this.nextIndex(this.index + 1);
+                            return entry;
+                        }
+
+                        private int nextIndex(int from) {
+                            // Skip duplicated column names, the map only holds the last one.
+                            while (from < columnNames.length && columnIndexes.get(columnNames[from]) != from)
+                                from++;
+                            return from;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return columnIndexes.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package org.broken.arrow.library.database.utility;
+
+import org.broken.arrow.library.database.builders.DataWrapper;
+import org.broken.arrow.library.database.builders.wrappers.SaveSetup;
+import org.broken.arrow.library.database.core.SQLDatabaseQuery;
+import org.broken.arrow.library.logging.Logging;
+import org.broken.arrow.library.logging.Validate;
+import org.broken.arrow.library.serialize.utility.serialize.ConfigurationSerializable;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Queues writes in memory and saves them to the database on a separate thread.
+ * <p>
+ * The calls to {@link #save(String, DataWrapper)} and {@link #save(String, Map, Consumer)} return at
+ * once with a {@link CompletableFuture} that completes when the row is written. If the same row is
+ * queued again before it is written, only the latest version is kept and both futures complete
+ * together. A row is matched by the table and its primary value or map key, so the latest call
+ * also decides how the row is saved, even if it was made through the other save method or with
+ * other columns.
+ * </p>
+ * <p>
+ * The queue is drained every {@code flushDelay} milliseconds, or as soon as it holds
+ * {@code batchSize} writes. The writes are grouped per table and saved with one
+ * {@link SQLDatabaseQuery#saveAll(String, List, boolean, String...)} or
+ * {@link SQLDatabaseQuery#save(String, Map, Consumer)} call for every group.
+ * </p>
+ * <p>
+ * The queue holds at most {@code capacity} writes. If it is full, the write is not queued and the
+ * returned future completes exceptionally with a {@link RejectedExecutionException}, so the calling
+ * thread never waits for the database. Writes queued from the queue's own thread, for example from
+ * a callback on one of the futures, are always accepted. Remember to call
+ * {@link #shutdown(long, TimeUnit)} when your plugin is disabled, so nothing is lost.
+ * </p>
+ * <p>
+ * Note: The futures only complete exceptionally if the save call throws. SQL errors the
+ * database logs on its own are not reported back.
+ * </p>
+ */
+public class WriteBehindQueue {
+    private final Logging log = new Logging(WriteBehindQueue.class);
+    private final Object lock = new Object();
+    private final SQLDatabaseQuery database;
+    private final ScheduledExecutorService executor;
+    private final int capacity;
+    private final int batchSize;
+    private final AtomicLong queuedWrites = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private final AtomicLong writtenRows = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong drainCount = new AtomicLong();
+    private final AtomicLong totalDrainNanos = new AtomicLong();
+    private final AtomicLong lastDrainNanos = new AtomicLong();
+    private Map<WriteKey, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private volatile Thread drainThread;
+    private boolean drainScheduled;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new write-behind queue with a capacity of 10 000 writes, drained every
+     * second or when 500 writes are queued.
+     *
+     * @param database the database to save the data to.
+     */
+    public WriteBehindQueue(@Nonnull final SQLDatabaseQuery database) {
+        this(database, 10_000, 500, 1000);
+    }
+
+    /**
+     * Creates a new write-behind queue.
+     *
+     * @param database   the database to save the data to.
+     * @param capacity   the maximum amount of writes waiting in the queue.
+     * @param batchSize  the amount of queued writes that starts a drain before the flush delay.
+     * @param flushDelay the time in milliseconds between every drain of the queue.
+     */
+    public WriteBehindQueue(@Nonnull final SQLDatabaseQuery database, final int capacity, final int batchSize, final long flushDelay) {
+        Validate.checkBoolean(capacity < 1, "The capacity must be above zero, you set: " + capacity);
+        Validate.checkBoolean(batchSize < 1, "The batch size must be above zero, you set: " + batchSize);
+        Validate.checkBoolean(flushDelay < 1, "The flush delay must be above zero, you set: " + flushDelay);
+        this.database = database;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Database-write-behind");
+            thread.setDaemon(true);
+            this.drainThread = thread;
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::drain, flushDelay, flushDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a row to be saved, existing rows will not be updated.
+     *
+     * @param tableName   the table to save the row to.
+     * @param dataWrapper the row to save.
+     * @return a future that completes when the row is written.
+     * @see SQLDatabaseQuery#save(String, DataWrapper)
+     */
+    @Nonnull
+    public CompletableFuture<Void> save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper) {
+        return this.save(tableName, dataWrapper, false);
+    }
+
+    /**
+     * Queue a row to be saved. Rows with the same primary value in the same table are
+     * merged, so only the latest one is written.
+     *
+     * @param tableName   the table to save the row to.
+     * @param dataWrapper the row to save.
+     * @param shallUpdate set to true if you want to update the row if it exists.
+     * @param columns     the columns to update, if empty all columns are saved.
+     * @return a future that completes when the row is written.
+     * @see SQLDatabaseQuery#saveAll(String, List, boolean, String...)
+     */
+    @Nonnull
+    public CompletableFuture<Void> save(@Nonnull final String tableName, @Nonnull final DataWrapper dataWrapper, final boolean shallUpdate, final String... columns) {
+        final WriteGroup group = new WriteGroup(tableName, shallUpdate, columns == null ? Collections.emptyList() : Arrays.asList(columns), null);
+        return this.enqueue(new WriteKey(tableName, dataWrapper.getPrimaryValue()), group, dataWrapper);
+    }
+
+    /**
+     * Queue the values in the map to be saved. Entries with the same key and table are
+     * merged, so only the latest value is written.
+     * <p>
+     * Reuse the same {@code saveSetup} instance between calls, as the entries are saved
+     * together per instance when the queue is drained.
+     * </p>
+     *
+     * @param tableName   the table to save the rows to.
+     * @param cacheToSave the values to save mapped by your key.
+     * @param saveSetup   the setup used to build the queries, see {@link SQLDatabaseQuery#save(String, Map, Consumer)}.
+     * @param <K>         the type of keys used in your map.
+     * @param <V>         the type of values, which must implement {@link ConfigurationSerializable}.
+     * @return a future that completes when all entries are written.
+     */
+    @Nonnull
+    public <K, V extends ConfigurationSerializable> CompletableFuture<Void> save(@Nonnull final String tableName, @Nonnull final Map<K, V> cacheToSave, @Nonnull final Consumer<SaveSetup> saveSetup) {
+        final WriteGroup group = new WriteGroup(tableName, false, Collections.emptyList(), saveSetup);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Map.Entry<K, V> entry : cacheToSave.entrySet()) {
+            futures.add(this.enqueue(new WriteKey(tableName, entry.getKey()), group, entry.getValue()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Drain all writes queued so far.
+     *
+     * @return a future that completes when the writes are done.
+     */
+    @Nonnull
+    public CompletableFuture<Void> flush() {
+        if (this.executor.isShutdown()) {
+            this.drain();
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(this::drain, this.executor);
+    }
+
+    /**
+     * Stop accepting new writes, drain the queue and stop the thread.
+     *
+     * @param timeout the maximum time to wait for the queue to drain.
+     * @param unit    the time unit of the timeout.
+     * @return {@code true} if all writes were done within the timeout.
+     */
+    public boolean shutdown(final long timeout, @Nonnull final TimeUnit unit) {
+        synchronized (this.lock) {
+            this.shutdown = true;
+        }
+        this.flush();
+        this.executor.shutdown();
+        try {
+            return this.executor.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Check if the queue is shutdown.
+     *
+     * @return {@code true} if it no longer accepts writes.
+     */
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    /**
+     * Retrieve the amount of writes waiting to be saved.
+     *
+     * @return the current queue depth.
+     */
+    public int getQueueDepth() {
+        synchronized (this.lock) {
+            return this.pendingWrites.size();
+        }
+    }
+
+    /**
+     * Retrieve the total amount of writes queued.
+     *
+     * @return the amount of writes queued.
+     */
+    public long getQueuedWrites() {
+        return this.queuedWrites.get();
+    }
+
+    /**
+     * Retrieve the amount of writes that replaced an older write for the same row,
+     * before the older one was saved.
+     *
+     * @return the amount of merged writes.
+     */
+    public long getCoalescedWrites() {
+        return this.coalescedWrites.get();
+    }
+
+    /**
+     * Retrieve the total amount of rows written to the database.
+     *
+     * @return the amount of written rows.
+     */
+    public long getWrittenRows() {
+        return this.writtenRows.get();
+    }
+
+    /**
+     * Retrieve the amount of writes that failed, or were rejected because the queue was full.
+     *
+     * @return the amount of failed writes.
+     */
+    public long getFailedWrites() {
+        return this.failedWrites.get();
+    }
+
+    /**
+     * Retrieve how many times the queue was drained.
+     *
+     * @return the amount of drains that wrote at least one row.
+     */
+    public long getDrainCount() {
+        return this.drainCount.get();
+    }
+
+    /**
+     * Retrieve the time the last drain took.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getLastDrainMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.lastDrainNanos.get());
+    }
+
+    /**
+     * Retrieve the average time a drain takes.
+     *
+     * @return the time in milliseconds.
+     */
+    public long getAverageDrainMillis() {
+        final long drains = this.drainCount.get();
+        if (drains == 0) return 0;
+        return TimeUnit.NANOSECONDS.toMillis(this.totalDrainNanos.get() / drains);
+    }
+
+    @Nonnull
+    private CompletableFuture<Void> enqueue(final WriteKey key, final WriteGroup group, final Object data) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        boolean startDrain = false;
+        synchronized (this.lock) {
+            if (this.shutdown) {
+                future.completeExceptionally(new IllegalStateException("The write-behind queue is shutdown, can't save more data to: " + key.tableName));
+                return future;
+            }
+            if (this.pendingWrites.size() >= this.capacity && !this.pendingWrites.containsKey(key) && Thread.currentThread() != this.drainThread) {
+                this.failedWrites.incrementAndGet();
+                future.completeExceptionally(new RejectedExecutionException("The write-behind queue is full (" + this.capacity + " writes), can't save more data to: " + key.tableName));
+                startDrain = true;
+            } else {
+                this.queuedWrites.incrementAndGet();
+                final PendingWrite pendingWrite = this.pendingWrites.get(key);
+                if (pendingWrite != null) {
+                    this.coalescedWrites.incrementAndGet();
+                    pendingWrite.group = group;
+                    pendingWrite.data = data;
+                    pendingWrite.futures.add(future);
+                } else {
+                    this.pendingWrites.put(key, new PendingWrite(group, data, future));
+                }
+                if (this.pendingWrites.size() >= this.batchSize)
+                    startDrain = true;
+            }
+        }
+        if (startDrain)
+            this.scheduleDrain();
+        return future;
+    }
+
+    private void scheduleDrain() {
+        synchronized (this.lock) {
+            if (this.drainScheduled || this.executor.isShutdown()) return;
+            this.drainScheduled = true;
+        }
+        this.executor.execute(this::drain);
+    }
+
+    private void drain() {
+        final Map<WriteKey, PendingWrite> writes;
+        synchronized (this.lock) {
+            this.drainScheduled = false;
+            if (this.pendingWrites.isEmpty()) return;
+            writes = this.pendingWrites;
+            this.pendingWrites = new LinkedHashMap<>();
+        }
+        final long start = System.nanoTime();
+
+        final Map<WriteGroup, Map<Object, PendingWrite>> groups = new LinkedHashMap<>();
+        for (Map.Entry<WriteKey, PendingWrite> entry : writes.entrySet()) {
+            groups.computeIfAbsent(entry.getValue().group, group -> new LinkedHashMap<>()).put(entry.getKey().key, entry.getValue());
+        }
+        for (Map.Entry<WriteGroup, Map<Object, PendingWrite>> entry : groups.entrySet()) {
+            this.write(entry.getKey(), entry.getValue());
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        this.lastDrainNanos.set(elapsed);
+        this.totalDrainNanos.addAndGet(elapsed);
+        this.drainCount.incrementAndGet();
+    }
+
+    private void write(final WriteGroup group, final Map<Object, PendingWrite> writes) {
+        try {
+            if (group.saveSetup != null) {
+                final Map<Object, ConfigurationSerializable> cacheToSave = new LinkedHashMap<>();
+                for (Map.Entry<Object, PendingWrite> entry : writes.entrySet())
+                    cacheToSave.put(entry.getKey(), (ConfigurationSerializable) entry.getValue().data);
+                this.database.save(group.tableName, cacheToSave, group.saveSetup).save();
+            } else {
+                final List<DataWrapper> dataWrappers = new ArrayList<>();
+                for (PendingWrite pendingWrite : writes.values())
+                    dataWrappers.add((DataWrapper) pendingWrite.data);
+                this.database.saveAll(group.tableName, dataWrappers, group.shallUpdate, group.columns.toArray(new String[0]));
+            }
+        } catch (RuntimeException e) {
+            this.failedWrites.addAndGet(writes.size());
+            log.log(Level.WARNING, e, () -> "Failed to save " + writes.size() + " queued rows to the table: " + group.tableName);
+            for (PendingWrite pendingWrite : writes.values())
+                pendingWrite.complete(e);
+            return;
+        }
+        this.writtenRows.addAndGet(writes.size());
+        for (PendingWrite pendingWrite : writes.values())
+            pendingWrite.complete(null);
+    }
+
+    private static class PendingWrite {
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>(1);
+        private WriteGroup group;
+        private Object data;
+
+        private PendingWrite(final WriteGroup group, final Object data, final CompletableFuture<Void> future) {
+            this.group = group;
+            this.data = data;
+            this.futures.add(future);
+        }
+
+        private void complete(final Throwable throwable) {
+            for (CompletableFuture<Void> future : this.futures) {
+                if (throwable != null)
+                    future.completeExceptionally(throwable);
+                else
+                    future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * The writes that can be saved together with one call to the database.
+     */
+    private static final class WriteGroup {
+        private final String tableName;
+        private final boolean shallUpdate;
+        private final List<String> columns;
+        private final Consumer<SaveSetup> saveSetup;
+
+        private WriteGroup(final String tableName, final boolean shallUpdate, final List<String> columns, final Consumer<SaveSetup> saveSetup) {
+            this.tableName = tableName;
+            this.shallUpdate = shallUpdate;
+            this.columns = columns;
+            this.saveSetup = saveSetup;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final WriteGroup that = (WriteGroup) o;
+            return shallUpdate == that.shallUpdate && tableName.equals(that.tableName) &&
+                    columns.equals(that.columns) && saveSetup == that.saveSetup;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableName, shallUpdate, columns, System.identityHashCode(saveSetup));
+        }
+    }
+
+    /**
+     * Identifies one row in a table.
+     */
+    private static final class WriteKey {
+        private final String tableName;
+        private final Object key;
+
+        private WriteKey(final String tableName, final Object key) {
+            this.tableName = tableName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final WriteKey that = (WriteKey) o;
+            return tableName.equals(that.tableName) && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableName, key);
+        }
+    }
+}
@@ -24,7 +24,8 @@ import java.util.Map;
  */
 public class LocalizationCache extends YamlFileManager {
 
-	private Localization localization;
+	private volatile Localization localization;
+	private volatile MessageTable messageTable = MessageTable.EMPTY;
 	private final MessagesUtility messagesUtility;
 
 	/**
@@ -47,6 +48,16 @@ public class LocalizationCache extends YamlFileManager {
 		return localization;
 	}
 
+	/**
+	 * Gets the compiled messages, built every time the file is loaded.
+	 *
+	 * @return the current message table, or an empty table if not loaded.
+	 */
+	@Nonnull
+	public MessageTable getMessageTable() {
+		return messageTable;
+	}
+
 	/**
 	 * Gets the {@link MessagesUtility} instance associated with this cache.
 	 *
@@ -71,7 +82,9 @@ public class LocalizationCache extends YamlFileManager {
 	/**
 	 * Loads localization data from the given YAML configuration file.
 	 * Extracts placeholders and plugin messages, sets plugin metadata,
-	 * and updates the cached {@link Localization} instance.
+	 * and updates the cached {@link Localization} instance and {@link MessageTable}.
+	 * Both are fully built before they replace the old ones, so messages sent
+	 * during a reload are never blocked or sent from a half loaded file.
 	 *
 	 * @param file          the YAML file being loaded.
 	 * @param configuration the parsed configuration from the YAML file.
@@ -95,6 +108,9 @@ public class LocalizationCache extends YamlFileManager {
 			pluginMessages.setPrefixDecor(configuration.getString("Prefix_decor"));
 			pluginMessages.setSuffixDecor(configuration.getString("Suffix_decor"));
 		}
-		this.localization = Localization.deserialize(map);
+		final Localization loaded = Localization.deserialize(map);
+		final MessageTable table = MessageTable.compile(loaded.getPluginMessages());
+		this.localization = loaded;
+		this.messageTable = table;
 	}
 }
\ No newline at end of file
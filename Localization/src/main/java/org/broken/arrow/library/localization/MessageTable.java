@@ -0,0 +1,148 @@
+package org.broken.arrow.library.localization;
+
+import org.broken.arrow.library.color.TextTemplate;
+import org.broken.arrow.library.color.TextTranslator;
+import org.broken.arrow.library.localization.builders.PluginMessages;
+import org.broken.arrow.library.serialize.utility.converters.PlaceholderTranslator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The messages from {@link PluginMessages} compiled once when the localization file is loaded.
+ * <p>
+ * Every line is kept as a {@link TextTemplate}, so the colors are already translated and the
+ * placeholders are already found. Sending a message only fills in the placeholder values. The
+ * prefix and suffix decor do not have any placeholders except the plugin name, so they are
+ * translated to the final text directly.
+ * </p>
+ * <p>
+ * The table is never changed after it is built. When the file is reloaded a new table is built
+ * and replaces the old one in {@link LocalizationCache}, so messages that are sent at the same
+ * time use the old or the new table, but never half of both.
+ * </p>
+ */
+public final class MessageTable {
+
+	/**
+	 * A table without any messages, used before the localization file is loaded.
+	 */
+	public static final MessageTable EMPTY = new MessageTable(Collections.emptyMap());
+
+	private final Map<String, CompiledMessage> messages;
+
+	private MessageTable(final Map<String, CompiledMessage> messages) {
+		this.messages = messages;
+	}
+
+	/**
+	 * Compile all messages.
+	 *
+	 * @param pluginMessages the messages loaded from the file, or {@code null} if the file has none.
+	 * @return the compiled table.
+	 */
+	@Nonnull
+	public static MessageTable compile(@Nullable final PluginMessages pluginMessages) {
+		if (pluginMessages == null)
+			return EMPTY;
+		String pluginName = pluginMessages.getPluginName();
+		if (pluginName == null)
+			pluginName = "";
+		final String prefix = decor(pluginMessages.getPrefixDecor(), pluginName);
+		final String suffix = decor(pluginMessages.getSuffixDecor(), pluginName);
+
+		final Map<String, List<String>> rawMessages = pluginMessages.getMessagesCache();
+		final Map<String, CompiledMessage> compiled = new HashMap<>((int) (rawMessages.size() / 0.75F) + 1);
+		for (Map.Entry<String, List<String>> entry : rawMessages.entrySet()) {
+			final List<String> lines = entry.getValue();
+			if (lines == null || lines.isEmpty()) continue;
+			final boolean addPreSuffix = lines.size() > 1;
+			final List<TextTemplate> templates = new ArrayList<>(lines.size());
+			for (String line : lines) {
+				if (line == null) continue;
+				templates.add(TextTranslator.compile((addPreSuffix ? "" : pluginName) + line));
+			}
+			compiled.put(entry.getKey(), new CompiledMessage(addPreSuffix ? prefix : null, templates, addPreSuffix ? suffix : null));
+		}
+		return new MessageTable(compiled);
+	}
+
+	/**
+	 * Check if the table has a message for the key.
+	 *
+	 * @param key the key from the YAML file.
+	 * @return {@code true} if the message exists and has at least one line.
+	 */
+	public boolean hasMessage(@Nonnull final String key) {
+		return this.messages.containsKey(key);
+	}
+
+	/**
+	 * Render the message with the placeholders, in the format that can be sent to a player.
+	 * The prefix and suffix decor are added when the message has more than one line.
+	 *
+	 * @param key          the key from the YAML file. Use only the inner key, ignoring the first key "Message".
+	 * @param placeholders the placeholders to replace in the message.
+	 * @return the lines to send, or an empty list if the key does not exist.
+	 */
+	@Nonnull
+	public List<String> render(@Nonnull final String key, @Nullable final Object... placeholders) {
+		final CompiledMessage message = this.messages.get(key);
+		if (message == null)
+			return Collections.emptyList();
+		return message.render(normalize(placeholders));
+	}
+
+	/**
+	 * The values are set like {@link PlaceholderTranslator} does it, a {@code null} value removes the
+	 * placeholder and a list is not replaced, so the placeholder is left in the text.
+	 */
+	private static Object[] normalize(@Nullable final Object[] placeholders) {
+		if (placeholders == null)
+			return null;
+		Object[] values = placeholders;
+		for (int i = 0; i < placeholders.length; i++) {
+			final Object value = placeholders[i];
+			if (value != null && !(value instanceof List)) continue;
+			if (values == placeholders)
+				values = placeholders.clone();
+			values[i] = value == null ? "" : "{" + i + "}";
+		}
+		return values;
+	}
+
+	@Nullable
+	private static String decor(@Nullable final String decor, @Nonnull final String pluginName) {
+		if (decor == null)
+			return null;
+		return TextTranslator.toSpigotFormat(PlaceholderTranslator.translatePlaceholders(decor, pluginName));
+	}
+
+	private static final class CompiledMessage {
+		private final String prefix;
+		private final List<TextTemplate> lines;
+		private final String suffix;
+
+		private CompiledMessage(@Nullable final String prefix, @Nonnull final List<TextTemplate> lines, @Nullable final String suffix) {
+			this.prefix = prefix;
+			this.lines = lines;
+			this.suffix = suffix;
+		}
+
+		private List<String> render(@Nullable final Object[] placeholders) {
+			final List<String> rendered = new ArrayList<>(this.lines.size() + 2);
+			if (this.prefix != null)
+				rendered.add(this.prefix);
+			for (TextTemplate line : this.lines)
+				rendered.add(line.toSpigotFormat(placeholders));
+			if (this.suffix != null)
+				rendered.add(this.suffix);
+			return rendered;
+		}
+	}
+}
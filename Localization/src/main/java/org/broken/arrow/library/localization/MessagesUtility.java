@@ -9,6 +9,7 @@ import org.bukkit.entity.Player;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -65,6 +66,11 @@ public class MessagesUtility {
 	 * @param placeholders The placeholders to replace in the message.
 	 */
 	public void sendMessage(@Nullable final Level level, @Nullable final Player player, @Nonnull final String key, @Nullable final Object... placeholders) {
+		if (player != null) {
+			for (String message : this.localizationCache.getMessageTable().render(key, placeholders))
+				sendFormattedMessage(player, message);
+			return;
+		}
 		PluginMessages pluginMessages = this.localizationCache.getLocalization().getPluginMessages();
 		
 		if (pluginMessages == null) return;
@@ -77,6 +83,38 @@ public class MessagesUtility {
 		}
 	}
 
+	/**
+	 * Sends the same message to many players. The message is rendered once with the placeholders,
+	 * and then sent to every player.
+	 *
+	 * @param players      The players to send the message to.
+	 * @param key          The key from the YAML file for the message value. Use only the inner key, ignoring the first key "Message".
+	 * @param placeholders The placeholders to replace in the message.
+	 */
+	public void broadcastMessage(@Nonnull final Collection<? extends Player> players, @Nonnull final String key, @Nullable final Object... placeholders) {
+		if (players.isEmpty()) return;
+		final List<String> messages = this.localizationCache.getMessageTable().render(key, placeholders);
+		if (messages.isEmpty()) return;
+		for (Player player : players) {
+			if (player == null) continue;
+			for (String message : messages)
+				sendFormattedMessage(player, message);
+		}
+	}
+
+	/**
+	 * Retrieves the message with the placeholders replaced and the colors translated, like
+	 * it is sent to a player. Use it when you need to send the message in another way.
+	 *
+	 * @param key          The key from the YAML file for the message value. Use only the inner key, ignoring the first key "Message".
+	 * @param placeholders The placeholders to replace in the message.
+	 * @return the lines of the message, or an empty list if the key does not exist.
+	 */
+	@Nonnull
+	public List<String> getMessage(@Nonnull final String key, @Nullable final Object... placeholders) {
+		return this.localizationCache.getMessageTable().render(key, placeholders);
+	}
+
 	/**
 	 * Retrieves a placeholder value from the YAML file for localization.
 	 * This method is used to replace specific values, making it easy to change them in the file for different languages.
@@ -118,13 +156,17 @@ public class MessagesUtility {
 				this.sendLogMsg(level, ChatColor.stripColor(message));
 			return;
 		}
-		if (message != null) {
-			if (!player.isConversing())
-				player.sendMessage(TextTranslator.toSpigotFormat(message));
-			else
-				player.sendRawMessage(TextTranslator.toSpigotFormat(message));
-		}
+		if (message != null)
+			sendFormattedMessage(player, TextTranslator.toSpigotFormat(message));
 	}
+
+	private static void sendFormattedMessage(@Nonnull final Player player, @Nonnull final String message) {
+		if (!player.isConversing())
+			player.sendMessage(message);
+		else
+			player.sendRawMessage(message);
+	}
+
 	private void sendPlainMessage(@Nullable final Level level, @Nullable final Player player, final PluginMessages pluginMessages, final List<String> messages, final String pluginName, @Nullable final Object[] placeholders) {
 		boolean addPreSuffix = messages.size() > 1;
 		if (addPreSuffix && pluginMessages.getPrefixDecor() != null) {
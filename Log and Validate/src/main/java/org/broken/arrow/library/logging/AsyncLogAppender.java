@@ -0,0 +1,109 @@
+package org.broken.arrow.library.logging;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Writes the log records on its own thread, so the thread that logs never waits on the
+ * console or a file. Used by {@link Logging} when {@link Logging#setAsynchronous(boolean)} is on.
+ * <p>
+ * The queue has a fixed size. If it is full the record is dropped and counted, and the amount
+ * of dropped records is logged when the queue has room again, so a flood of warnings can not
+ * use up the memory.
+ */
+final class AsyncLogAppender {
+    private static final int QUEUE_SIZE = 8192;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    AsyncLogAppender() {
+        this.worker = new Thread(this::run, "Logging-async-appender");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Add the record to the queue, it is dropped if the queue is full. If the appender is
+     * shutdown, the record is written on the calling thread instead.
+     *
+     * @param logger the logger to write the record to.
+     * @param record the record to write.
+     */
+    void append(@Nonnull final Logger logger, @Nonnull final LogRecord record) {
+        if (!this.running) {
+            logger.log(record);
+            return;
+        }
+        if (!this.queue.offer(new Entry(logger, record)))
+            this.dropped.incrementAndGet();
+        else if (!this.running)
+            // Shutdown may have drained the queue before the record was added.
+            this.drain();
+    }
+
+    /**
+     * Stop the thread and write the records that are left in the queue on the calling thread.
+     */
+    void shutdown() {
+        this.running = false;
+        this.worker.interrupt();
+        try {
+            this.worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.drain();
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                final Entry entry = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null)
+                    entry.publish();
+                this.reportDropped();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                Logger.getLogger(Logging.class.getName()).log(Level.WARNING, "Failed to write a log record.", e);
+            }
+        }
+    }
+
+    private void drain() {
+        Entry entry;
+        while ((entry = this.queue.poll()) != null)
+            entry.publish();
+        this.reportDropped();
+    }
+
+    private void reportDropped() {
+        final int amount = this.dropped.getAndSet(0);
+        if (amount > 0)
+            Logger.getLogger(Logging.class.getName()).log(Level.WARNING, "Dropped " + amount + " log messages, because too many was logged at the same time.");
+    }
+
+    private static final class Entry {
+        private final Logger logger;
+        private final LogRecord record;
+
+        private Entry(final Logger logger, final LogRecord record) {
+            this.logger = logger;
+            this.record = record;
+        }
+
+        private void publish() {
+            this.logger.log(this.record);
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package org.broken.arrow.library.logging;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
 /**
@@ -14,10 +15,15 @@ import java.util.logging.Logger;
  * customizable message building via {@link Consumer} of {@link MessageWrapper}.
  * <p>
  * Allows logging exceptions with messages, and supports placeholders replacement
- * within messages.
+ * within messages. The message is only built if the level is enabled for the logger.
+ * <p>
+ * Use {@link #setAsynchronous(boolean)} to write the messages on another thread, so
+ * many warnings at the same time do not block the thread that logs them.
  */
 public final class Logging {
 
+    private static volatile AsyncLogAppender asyncAppender;
+
     private final Logger log;
 
     /**
@@ -67,12 +73,10 @@ public final class Logging {
      * @param msg the supplier that provides the log message
      */
     public void log(final Level level, final Throwable exception, final Supplier<String> msg) {
-        String message = msg.get();
         final Level logLevel = level == null ? Level.INFO : level;
+        if (!log.isLoggable(logLevel)) return;
 
-
-        if (exception != null) log.log(logLevel, message, exception);
-        else log.log(logLevel, message);
+        this.publish(logLevel, exception, msg.get());
     }
 
     /**
@@ -124,15 +128,63 @@ public final class Logging {
      * @param wrapper the consumer to build the message
      */
     public void log(final Level level, final Exception exception, final Consumer<MessageWrapper> wrapper) {
+        final Level logLevel = level == null ? Level.INFO : level;
+        if (!log.isLoggable(logLevel)) return;
+
         final MessageWrapper messageWrapper = new MessageWrapper();
         wrapper.accept(messageWrapper);
+        this.publish(logLevel, exception, messageWrapper.getMessage());
+    }
 
-        final String message = messageWrapper.getMessage();
-        final Level logLevel = level == null ? Level.INFO : level;
+    /**
+     * Set if the messages should be written on another thread. When it is on, the message is
+     * built on the thread that logs it and then put in a queue, so the thread never waits on
+     * the console or a file. If too many messages are logged at the same time, the
+     * messages that do not fit in the queue are dropped and the amount is logged.
+     * <p>
+     * When it is turned off, the messages left in the queue are written before this method returns.
+     * This is for all {@link Logging} instances.
+     * <p>
+     * The thread is not stopped on its own, so if you turn it on, call this method with
+     * {@code false} when your plugin is disabled.
+     *
+     * @param asynchronous {@code true} to write the messages on another thread.
+     */
+    public static synchronized void setAsynchronous(final boolean asynchronous) {
+        final AsyncLogAppender appender = asyncAppender;
+        if (asynchronous == (appender != null)) return;
 
-        if (exception != null) log.log(logLevel, message, exception);
-        else log.log(logLevel, message);
+        if (asynchronous) {
+            asyncAppender = new AsyncLogAppender();
+        } else {
+            asyncAppender = null;
+            appender.shutdown();
+        }
+    }
 
+    /**
+     * Check if the messages are written on another thread.
+     *
+     * @return {@code true} if {@link #setAsynchronous(boolean)} is on.
+     */
+    public static boolean isAsynchronous() {
+        return asyncAppender != null;
+    }
+
+    private void publish(final Level level, final Throwable exception, final String message) {
+        final AsyncLogAppender appender = asyncAppender;
+        if (appender == null) {
+            if (exception != null) log.log(level, message, exception);
+            else log.log(level, message);
+            return;
+        }
+        final LogRecord logRecord = new LogRecord(level, message);
+        logRecord.setLoggerName(log.getName());
+        logRecord.setThrown(exception);
+        // Set the source, else it is looked up from the stack of the thread that writes the record.
+        logRecord.setSourceClassName(log.getName());
+        logRecord.setSourceMethodName(null);
+        appender.append(log, logRecord);
     }
 
     /**
@@ -141,8 +193,7 @@ public final class Logging {
      */
     public static final class MessageWrapper {
         private String message;
-        private String msgCopy;
-        private final Map<String, String> placeholders = new HashMap<>();
+        private final Map<String, String> placeholders = new LinkedHashMap<>();
 
         private MessageWrapper() {
         }
@@ -198,13 +249,42 @@ public final class Logging {
             return this;
         }
 
+        /**
+         * Replace all placeholders in one pass over the message. At every position the first
+         * placeholder that matches is used, and the values are never searched for placeholders.
+         */
         private String setPlaceholders() {
-            if (placeholders.isEmpty()) {
+            if (placeholders.isEmpty() || message == null) {
+                return message;
+            }
+            StringBuilder builder = null;
+            int copied = 0;
+            int index = 0;
+            while (index < message.length()) {
+                final Map.Entry<String, String> match = this.matchAt(index);
+                if (match == null) {
+                    index++;
+                    continue;
+                }
+                if (builder == null)
+                    builder = new StringBuilder(message.length() + 16 * placeholders.size());
+                final String value = match.getValue();
+                builder.append(message, copied, index).append(value != null ? value : "");
+                index += match.getKey().length();
+                copied = index;
+            }
+            if (builder == null)
                 return message;
+            return builder.append(message, copied, message.length()).toString();
+        }
+
+        private Map.Entry<String, String> matchAt(final int index) {
+            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+                final String key = entry.getKey();
+                if (key != null && !key.isEmpty() && message.startsWith(key, index))
+                    return entry;
             }
-            placeholders.forEach((placeholderKey, value) ->
-                    msgCopy = message.replace(placeholderKey, value != null ? value : ""));
-            return msgCopy;
+            return null;
         }
     }
 }
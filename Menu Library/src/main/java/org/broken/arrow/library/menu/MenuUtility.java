@@ -7,6 +7,7 @@ import org.broken.arrow.library.menu.builders.MenuDataUtility;
 import org.broken.arrow.library.menu.button.MenuButton;
 import org.broken.arrow.library.menu.cache.MenuCache;
 import org.broken.arrow.library.menu.cache.MenuCacheKey;
+import org.broken.arrow.library.menu.cache.OpenMenuRegistry;
 import org.broken.arrow.library.menu.holder.HolderUtility;
 import org.broken.arrow.library.menu.holder.MenuHolder;
 import org.broken.arrow.library.menu.holder.MenuHolderPage;
@@ -15,6 +16,7 @@ import org.broken.arrow.library.menu.holder.utility.LoadInventoryHandler;
 import org.broken.arrow.library.menu.holder.utility.MenuRenderer;
 import org.broken.arrow.library.menu.runnable.AnimateTitleTask;
 import org.broken.arrow.library.menu.runnable.ButtonAnimation;
+import org.broken.arrow.library.menu.runnable.ButtonAnimationScheduler;
 import org.broken.arrow.library.menu.utility.Action;
 import org.broken.arrow.library.menu.utility.MenuInteractionChecks;
 import org.broken.arrow.library.menu.utility.MetadataPlayer;
@@ -38,9 +40,10 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -58,7 +61,7 @@ public class MenuUtility<T> {
     private final MenuRenderer<T> menuRenderer;
     private final CheckItemsInsideMenu checkItemsInsideMenu;
     private final List<MenuButton> buttonsToUpdate = new ArrayList<>();
-    private final Map<Integer, MenuDataUtility<T>> pagesOfButtonsData = new HashMap<>();
+    private final Map<Integer, MenuDataUtility<T>> pagesOfButtonsData = new LinkedHashMap<>(16, 0.75F, true);
     private final Map<Integer, Long> timeWhenUpdatesButtons = new HashMap<>();
     private final MenuInteractionChecks<T> menuInteractionChecks;
     private final InventoryRenderer<T> inventoryRender;
@@ -99,6 +102,7 @@ public class MenuUtility<T> {
     private String playerMetadataKey;
 
     private int manuallySetPages = -1;
+    private int maxCachedPages;
 
     /**
      * Creates a menu instance.
@@ -326,18 +330,10 @@ public class MenuUtility<T> {
      * @return the slot pos inside the inventory or -1 if not fund data or if cache is null.
      */
     public int getButtonSlot(int page, final MenuButton menuButton) {
-        final Map<Integer, ButtonData<T>> data = this.getMenuButtons(page);
+        final MenuDataUtility<T> menuDataUtility = this.pagesOfButtonsData.get(page);
 
-        if (data == null) return -1;
-        for (final Entry<Integer, ButtonData<T>> entry : data.entrySet()) {
-            ButtonData<T> buttonData = entry.getValue();
-            if (buttonData == null) continue;
-            final MenuButton cacheMenuButton = buttonData.getMenuButton();
-
-            if (cacheMenuButton != null && cacheMenuButton.getId() == menuButton.getId())
-                return entry.getKey();
-        }
-        return -1;
+        if (menuDataUtility == null) return -1;
+        return menuDataUtility.getSlot(menuButton);
     }
 
     /**
@@ -349,25 +345,11 @@ public class MenuUtility<T> {
      */
     @Nonnull
     public Set<Integer> getButtonSlots(final MenuDataUtility<T> menuDataUtility, final MenuButton menuButton) {
-        final Set<Integer> slots = new HashSet<>();
-        if (menuDataUtility == null) return slots;
-        final int menuButtonId = menuButton.getId();
-
-        for (final Entry<Integer, ButtonData<T>> entry : menuDataUtility.getButtons().entrySet()) {
-            ButtonData<T> buttonData = entry.getValue();
-            if (buttonData == null) continue;
-
-            final MenuButton cacheMenuButton = buttonData.getMenuButton();
-            final MenuButton fillMenuButton = buttonData.isFillButton() ? menuDataUtility.getFillMenuButton(menuButton) : null;
-
-            if (fillMenuButton != null && fillMenuButton.getId() == menuButtonId) {
-                slots.add(entry.getKey());
-            } else {
-                if (cacheMenuButton != null && menuButtonId == cacheMenuButton.getId()) {
-                    slots.add(entry.getKey());
-                }
-            }
-        }
+        if (menuDataUtility == null) return new HashSet<>();
+
+        final Set<Integer> slots = menuDataUtility.getButtonSlots(menuButton);
+        if (menuDataUtility.getFillMenuButton(menuButton) != null)
+            slots.addAll(menuDataUtility.getFillButtonSlots());
         return slots;
     }
 
@@ -436,6 +418,39 @@ public class MenuUtility<T> {
         this.manuallySetPages = amountOfPages;
     }
 
+    /**
+     * Sets how many rendered pages are kept in the cache. When the cache holds more pages,
+     * the pages that were used longest ago are removed and rendered again if they are opened.
+     * The current page and the pages inside the prefetch window are never removed.
+     * <p>
+     * The default is 0, that keeps every page that has been rendered.
+     * </p>
+     *
+     * @param maxCachedPages the max amount of pages to keep, or 0 to keep all pages.
+     */
+    public void setMaxCachedPages(final int maxCachedPages) {
+        this.maxCachedPages = Math.max(maxCachedPages, 0);
+    }
+
+    /**
+     * Sets the amount of pages before and after the current page that are rendered
+     * when the current page is rendered, so they are ready when the player change page.
+     *
+     * @param prefetchPages the amount of pages on each side of the current page.
+     */
+    public void setPrefetchPages(final int prefetchPages) {
+        this.menuRenderer.setPrefetchPages(prefetchPages);
+    }
+
+    /**
+     * Get how many rendered pages are kept in the cache.
+     *
+     * @return the max amount of pages, or 0 if all pages are kept.
+     */
+    public int getMaxCachedPages() {
+        return maxCachedPages;
+    }
+
     /**
      * Retrieve the current page. Start from zero and
      * never should be negative numbers.
@@ -760,6 +775,7 @@ public class MenuUtility<T> {
      */
     public void putAddedButtonsCache(final Integer pageNumber, final MenuDataUtility<T> menuDataUtility) {
         this.pagesOfButtonsData.put(pageNumber, menuDataUtility);
+        this.evictCachedPages();
     }
 
     /**
@@ -935,6 +951,21 @@ public class MenuUtility<T> {
         this.getTimeWhenUpdatesButtons().put(menuButton.getId(), time);
     }
 
+    /**
+     * Remove the pages used longest ago, until the cache is not bigger than {@link #getMaxCachedPages()}.
+     */
+    private void evictCachedPages() {
+        if (this.maxCachedPages <= 0 || this.pagesOfButtonsData.size() <= this.maxCachedPages)
+            return;
+        final int prefetchPages = this.menuRenderer.getPrefetchPages();
+        final Iterator<Integer> pages = this.pagesOfButtonsData.keySet().iterator();
+        while (pages.hasNext() && this.pagesOfButtonsData.size() > this.maxCachedPages) {
+            final int page = pages.next();
+            if (Math.abs(page - this.pageNumber) > prefetchPages)
+                pages.remove();
+        }
+    }
+
     protected void changePage(final boolean nextPage) {
         int page = this.pageNumber;
 
@@ -1006,14 +1037,21 @@ public class MenuUtility<T> {
     protected void unregister(@Nonnull final Player player) {
         final MetadataPlayer metadataPlayer = this.menuAPI.getPlayerMeta();
         final MenuCache menuCache = this.menuAPI.getMenuCache();
-
-        if (metadataPlayer.hasPlayerMetadata(this.player, MenuMetadataKey.MENU_OPEN)) {
-            metadataPlayer.removePlayerMenuMetadata(this.player, MenuMetadataKey.MENU_OPEN);
+        final OpenMenuRegistry openMenuRegistry = this.menuAPI.getOpenMenuRegistry();
+
+        openMenuRegistry.removeOpenMenu(player, this);
+        final MenuCacheKey menuCacheKey = this.getLoadInventoryHandler().getMenuCacheKey();
+        if (menuCacheKey != null) {
+            openMenuRegistry.removeOpenMenuLocation(player, menuCacheKey);
+            if (this.isAutoClearCache() && this.getAmountOfViewers() < 1)
+                menuCache.removeMenuCached(menuCacheKey);
         }
-        if (metadataPlayer.hasPlayerMetadata(this.player, MenuMetadataKey.MENU_OPEN_LOCATION) &&
-                this.isAutoClearCache() && this.getAmountOfViewers() < 1) {
-            final MenuCacheKey menuCacheKey = metadataPlayer.getPlayerMetadata(this.player, MenuMetadataKey.MENU_OPEN_LOCATION, MenuCacheKey.class);
-            menuCache.removeMenuCached(menuCacheKey);
+        if (this.menuAPI.isUsePlayerMetadata()) {
+            if (metadataPlayer.hasPlayerMetadata(player, MenuMetadataKey.MENU_OPEN) &&
+                    metadataPlayer.getPlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN) == this)
+                metadataPlayer.removePlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN);
+            if (menuCacheKey != null && menuCacheKey.equals(metadataPlayer.getPlayerMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION)))
+                metadataPlayer.removePlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION);
         }
 
         if (this.getAmountOfViewers() < 1)
@@ -1125,5 +1163,14 @@ public class MenuUtility<T> {
         return menuAPI.getPlugin();
     }
 
+    /**
+     * Retrieve the scheduler that runs the button animations of this menu.
+     * @return the scheduler of the plugin or {@code null} if no plugin is set.
+     */
+    @Nullable
+    public ButtonAnimationScheduler getButtonAnimationScheduler() {
+        return menuAPI.getButtonAnimationScheduler();
+    }
+
 
 }
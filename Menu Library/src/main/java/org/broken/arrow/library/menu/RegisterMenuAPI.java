@@ -4,11 +4,12 @@ import org.broken.arrow.library.itemcreator.ItemCreator;
 import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.menu.cache.MenuCache;
 import org.broken.arrow.library.menu.cache.MenuCacheKey;
+import org.broken.arrow.library.menu.cache.OpenMenuRegistry;
 import org.broken.arrow.library.menu.messages.SendMsgDuplicatedItems;
+import org.broken.arrow.library.menu.runnable.ButtonAnimationScheduler;
 import org.broken.arrow.library.menu.utility.Action;
 import org.broken.arrow.library.menu.utility.MetadataPlayer;
 import org.broken.arrow.library.menu.utility.ServerVersion;
-import org.broken.arrow.library.menu.utility.metadata.MenuMetadataKey;
 import org.broken.arrow.library.title.update.UpdateTitle;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -22,6 +23,8 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
@@ -51,6 +54,8 @@ public class RegisterMenuAPI {
     private static RegisterMenuAPI menuAPI;
     private final Logging logger = new Logging(RegisterMenuAPI.class);
     private final MenuCache menuCache;
+    private final OpenMenuRegistry openMenuRegistry = new OpenMenuRegistry();
+    private final ButtonAnimationScheduler animationScheduler;
     private final Plugin plugin;
     private MetadataPlayer playerMeta;
     private ItemCreator itemCreator;
@@ -58,6 +63,7 @@ public class RegisterMenuAPI {
     private SendMsgDuplicatedItems messages;
     private boolean notFoundItemCreator;
     private boolean notFoundUpdateTitle;
+    private boolean usePlayerMetadata = true;
 
     /**
      * Private default constructor used internally for singleton instance initialization.
@@ -65,6 +71,7 @@ public class RegisterMenuAPI {
      */
     private RegisterMenuAPI() {
         menuCache = null;
+        animationScheduler = null;
         plugin = null;
     }
 
@@ -95,6 +102,7 @@ public class RegisterMenuAPI {
         registerInstance(this);
         this.plugin = plugin;
         this.menuCache = new MenuCache();
+        this.animationScheduler = plugin != null ? new ButtonAnimationScheduler(plugin) : null;
         versionCheck(turnOffLogger);
         if (this.plugin == null) {
             logger.log(Level.WARNING, () -> "You have not set a plugin.");
@@ -210,6 +218,48 @@ public class RegisterMenuAPI {
         return menuCache;
     }
 
+    /**
+     * Gets the registry with the menu every player has open. This is used to
+     * find the menu when a player interact with the inventory.
+     *
+     * @return the {@link OpenMenuRegistry} instance
+     */
+    public OpenMenuRegistry getOpenMenuRegistry() {
+        return openMenuRegistry;
+    }
+
+    /**
+     * Gets the scheduler that runs the button animations in all menus of this plugin.
+     * It is stopped when the plugin is disabled.
+     *
+     * @return the {@link ButtonAnimationScheduler} instance or {@code null} if no plugin is set.
+     */
+    @Nullable
+    public ButtonAnimationScheduler getButtonAnimationScheduler() {
+        return animationScheduler;
+    }
+
+    /**
+     * Returns whether the open menu is also set as player metadata.
+     *
+     * @return true if the metadata is set; false otherwise.
+     */
+    public boolean isUsePlayerMetadata() {
+        return usePlayerMetadata;
+    }
+
+    /**
+     * Sets whether the open menu is also set as player metadata, so other plugins can
+     * find the menu the player has open. The menus are always found with the
+     * {@link #getOpenMenuRegistry()}, so you can turn this off if no other plugin
+     * needs the metadata. It is on by default.
+     *
+     * @param usePlayerMetadata true to set the metadata; false to only use the registry.
+     */
+    public void setUsePlayerMetadata(final boolean usePlayerMetadata) {
+        this.usePlayerMetadata = usePlayerMetadata;
+    }
+
     /**
      * Returns whether the dynamic update title class was not found.
      * <p>
@@ -316,6 +366,18 @@ public class RegisterMenuAPI {
             }
         }
 
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPlayerQuit(final PlayerQuitEvent event) {
+            final Player player = event.getPlayer();
+            cacheData.remove(player.getUniqueId());
+            getOpenMenuRegistry().remove(player.getUniqueId());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPluginDisable(final PluginDisableEvent event) {
+            if (event.getPlugin() != plugin || animationScheduler == null) return;
+            animationScheduler.shutdown();
+        }
 
         @EventHandler(priority = EventPriority.LOW)
         public void onInventoryDragTop(final InventoryDragEvent event) {
@@ -335,21 +397,14 @@ public class RegisterMenuAPI {
 
         @Nullable
         private MenuUtility<?> getMenuHolder(final Player player) {
+            final OpenMenuRegistry registry = getOpenMenuRegistry();
 
-            MenuCacheKey menukey = null;
+            final MenuUtility<?> menuUtility = registry.getOpenMenu(player);
+            if (menuUtility != null) return menuUtility;
 
-            MetadataPlayer metadataPlayer = getPlayerMeta();
-            if (metadataPlayer.hasPlayerMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION)) {
-                menukey = metadataPlayer.getPlayerMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION, MenuCacheKey.class);
-            }
-
-            final MenuUtility<?> menuUtility;
-            if (metadataPlayer.hasPlayerMetadata(player, MenuMetadataKey.MENU_OPEN)) {
-                menuUtility = metadataPlayer.getPlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN);
-            } else {
-                menuUtility = menuCache.getMenuInCache(menukey, MenuUtility.class);
-            }
-            return menuUtility;
+            final MenuCacheKey menukey = registry.getOpenMenuLocation(player);
+            if (menukey == null) return null;
+            return menuCache.getMenuInCache(menukey, MenuUtility.class);
         }
 
         private void onOffHandClick(final InventoryClickEvent event, final Player player) {
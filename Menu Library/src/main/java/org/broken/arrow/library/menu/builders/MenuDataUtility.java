@@ -4,9 +4,12 @@ import org.broken.arrow.library.menu.button.MenuButton;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -16,12 +19,20 @@ import java.util.function.Consumer;
  * particularly useful when populating a menu from a dataset like a list or map.
  * It allows configuring buttons on a per-slot basis and provides support for a shared fill button
  * or per-slot fill buttons when needed.
+ * <p>
+ * The slots every button is placed in are also kept, updated every time a button is put.
+ * So finding the slots for one button only visit the slots it is placed in, instead
+ * of every slot in the menu.
+ * </p>
  *
  * @param <T> the type associated with each button, used for context-specific data.
  */
 public final class MenuDataUtility<T> {
 
 	private final Map<Integer, ButtonData<T>> buttons = new HashMap<>();
+	private final Map<Integer, BitSet> slotsByButton = new HashMap<>();
+	private final BitSet fillButtonSlots = new BitSet();
+	private final BitSet slotsWithoutButton = new BitSet();
 	private Map<Integer, MenuButton> fillMenuButtons;
 	private MenuButton fillMenuButton;
 
@@ -50,7 +61,7 @@ public final class MenuDataUtility<T> {
 	 * @return the current instance for chaining
 	 */
 	public MenuDataUtility<T> putButton(final int slot, @Nonnull final ButtonData<T> buttonData, @Nullable final MenuButton fillMenuButton) {
-		buttons.put(slot, buttonData);
+		this.setButtonData(slot, buttonData);
 		if (fillMenuButton != null) {
 			if (this.getFillMenuButton() != null && this.getFillMenuButton().getId() != fillMenuButton.getId()) {
 				if (this.fillMenuButtons == null)
@@ -84,7 +95,7 @@ public final class MenuDataUtility<T> {
 	public MenuDataUtility<T> putButton(final int slot, @Nonnull  final MenuButton menuButton ,@Nonnull final Consumer<ButtonDataWrapper<T>> buttonData) {
 		final ButtonDataWrapper<T> buttonDataWrapper = new ButtonDataWrapper<>(menuButton);
 		buttonData.accept(buttonDataWrapper);
-		buttons.put(slot, buttonDataWrapper.build());
+		this.setButtonData(slot, buttonDataWrapper.build());
 
 		if (buttonDataWrapper.isFillButton()) {
 			if (this.getFillMenuButton() != null && this.getFillMenuButton().getId() != menuButton.getId()) {
@@ -181,6 +192,64 @@ public final class MenuDataUtility<T> {
 		return buttons.get(slot);
 	}
 
+	/**
+	 * Get the slots the button is placed in.
+	 *
+	 * @param menuButton the button to find.
+	 * @return a new set with the slots, empty if the button is not placed in this menu.
+	 */
+	@Nonnull
+	public Set<Integer> getButtonSlots(@Nonnull final MenuButton menuButton) {
+		final Set<Integer> slots = new HashSet<>();
+		final BitSet placedSlots = this.slotsByButton.get(menuButton.getId());
+		if (placedSlots != null)
+			addSlots(slots, placedSlots);
+		return slots;
+	}
+
+	/**
+	 * Get the slots the button is shown in. This is the slots the button is placed in, and the
+	 * slots without a button where the fill button for that slot is this button.
+	 *
+	 * @param menuButton the button to find.
+	 * @return a new set with the slots, empty if the button is not in this menu.
+	 */
+	@Nonnull
+	public Set<Integer> getShownSlots(@Nonnull final MenuButton menuButton) {
+		final Set<Integer> slots = this.getButtonSlots(menuButton);
+		for (int slot = this.slotsWithoutButton.nextSetBit(0); slot >= 0; slot = this.slotsWithoutButton.nextSetBit(slot + 1)) {
+			final MenuButton fillButton = this.getFillMenuButton(slot);
+			if (fillButton != null && fillButton.getId() == menuButton.getId())
+				slots.add(slot);
+		}
+		return slots;
+	}
+
+	/**
+	 * Get the first slot the button is placed in.
+	 *
+	 * @param menuButton the button to find.
+	 * @return the lowest slot the button is placed in, or -1 if it is not placed in this menu.
+	 */
+	public int getSlot(@Nonnull final MenuButton menuButton) {
+		final BitSet placedSlots = this.slotsByButton.get(menuButton.getId());
+		if (placedSlots == null)
+			return -1;
+		return placedSlots.nextSetBit(0);
+	}
+
+	/**
+	 * Get the slots where the button data is set as a fill button.
+	 *
+	 * @return a new set with the slots.
+	 */
+	@Nonnull
+	public Set<Integer> getFillButtonSlots() {
+		final Set<Integer> slots = new HashSet<>();
+		addSlots(slots, this.fillButtonSlots);
+		return slots;
+	}
+
 	/**
 	 * Returns an unmodifiable view of all registered buttons.
 	 *
@@ -221,6 +290,34 @@ public final class MenuDataUtility<T> {
 		return menuButton;
 	}
 
+	private void setButtonData(final int slot, final ButtonData<T> buttonData) {
+		final ButtonData<T> oldButtonData = buttons.put(slot, buttonData);
+		// The bitsets can only hold positive slots, all slots inside an inventory are.
+		if (slot < 0) return;
+
+		if (oldButtonData != null) {
+			final MenuButton oldButton = oldButtonData.getMenuButton();
+			if (oldButton != null) {
+				final BitSet slots = this.slotsByButton.get(oldButton.getId());
+				if (slots != null) {
+					slots.clear(slot);
+					if (slots.isEmpty())
+						this.slotsByButton.remove(oldButton.getId());
+				}
+			}
+		}
+		final MenuButton menuButton = buttonData.getMenuButton();
+		if (menuButton != null)
+			this.slotsByButton.computeIfAbsent(menuButton.getId(), id -> new BitSet()).set(slot);
+		this.slotsWithoutButton.set(slot, menuButton == null);
+		this.fillButtonSlots.set(slot, buttonData.isFillButton());
+	}
+
+	private static void addSlots(final Set<Integer> slots, final BitSet bitSet) {
+		for (int slot = bitSet.nextSetBit(0); slot >= 0; slot = bitSet.nextSetBit(slot + 1))
+			slots.add(slot);
+	}
+
 	@Override
 	public String toString() {
 		return "MenuDataUtility{" +
@@ -0,0 +1,98 @@
+package org.broken.arrow.library.menu.cache;
+
+import org.broken.arrow.library.menu.MenuUtility;
+import org.bukkit.entity.Player;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the menu every player has open, so the menu can be found with one
+ * lookup when the player clicks, drags, opens or closes the inventory.
+ * <p>
+ * A player has either a menu only this player uses, or the key of a menu tied to a
+ * location in {@link MenuCache}. The entries are removed when the menu is closed or
+ * the player leaves the server.
+ * </p>
+ */
+public final class OpenMenuRegistry {
+
+	private final Map<UUID, MenuUtility<?>> openMenus = new ConcurrentHashMap<>();
+	private final Map<UUID, MenuCacheKey> openMenuLocations = new ConcurrentHashMap<>();
+
+	/**
+	 * Set the menu the player has open.
+	 *
+	 * @param player the player that open the menu.
+	 * @param menu   the menu instance.
+	 */
+	public void setOpenMenu(@Nonnull final Player player, @Nonnull final MenuUtility<?> menu) {
+		this.openMenus.put(player.getUniqueId(), menu);
+	}
+
+	/**
+	 * Get the menu the player has open, not the menus tied to a location.
+	 *
+	 * @param player the player to check.
+	 * @return the menu or {@code null} if the player has no menu open.
+	 */
+	@Nullable
+	public MenuUtility<?> getOpenMenu(@Nonnull final Player player) {
+		return this.openMenus.get(player.getUniqueId());
+	}
+
+	/**
+	 * Set the key of the menu tied to a location, the player has open.
+	 *
+	 * @param player       the player that open the menu.
+	 * @param menuCacheKey the key of the menu in {@link MenuCache}.
+	 */
+	public void setOpenMenuLocation(@Nonnull final Player player, @Nonnull final MenuCacheKey menuCacheKey) {
+		this.openMenuLocations.put(player.getUniqueId(), menuCacheKey);
+	}
+
+	/**
+	 * Get the key of the menu tied to a location, the player has open.
+	 *
+	 * @param player the player to check.
+	 * @return the key or {@code null} if the player has no menu tied to a location open.
+	 */
+	@Nullable
+	public MenuCacheKey getOpenMenuLocation(@Nonnull final Player player) {
+		return this.openMenuLocations.get(player.getUniqueId());
+	}
+
+	/**
+	 * Remove the menu, only if it is still the menu the player has open. So if a new menu
+	 * is opened while the old one is closing, the new menu is kept.
+	 *
+	 * @param player the player that close the menu.
+	 * @param menu   the menu that is closed.
+	 */
+	public void removeOpenMenu(@Nonnull final Player player, @Nonnull final MenuUtility<?> menu) {
+		this.openMenus.remove(player.getUniqueId(), menu);
+	}
+
+	/**
+	 * Remove the key of the menu tied to a location, only if it is still the key set for the player.
+	 *
+	 * @param player       the player that close the menu.
+	 * @param menuCacheKey the key of the menu that is closed.
+	 */
+	public void removeOpenMenuLocation(@Nonnull final Player player, @Nonnull final MenuCacheKey menuCacheKey) {
+		this.openMenuLocations.remove(player.getUniqueId(), menuCacheKey);
+	}
+
+	/**
+	 * Remove all entries for the player.
+	 *
+	 * @param playerId the uuid of the player.
+	 */
+	public void remove(@Nonnull final UUID playerId) {
+		this.openMenus.remove(playerId);
+		this.openMenuLocations.remove(playerId);
+	}
+}
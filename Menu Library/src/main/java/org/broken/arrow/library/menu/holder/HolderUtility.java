@@ -366,7 +366,8 @@ public abstract class HolderUtility<T> extends MenuUtility<T> {
      * @return true if it could set the page.
      */
     public boolean setPage(final int page) {
-        if (!this.containsPage(page))
+        // Pages are rendered when opened, so the page does not need to be in the cache.
+        if (!this.containsPage(page) && (page < 0 || page >= this.getRequiredPages()))
             return false;
 
         this.pageNumber = page;
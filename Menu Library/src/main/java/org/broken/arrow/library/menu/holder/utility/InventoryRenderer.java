@@ -4,10 +4,13 @@ import org.broken.arrow.library.logging.Logging;
 import org.broken.arrow.library.menu.MenuUtility;
 import org.broken.arrow.library.menu.builders.ButtonData;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
@@ -17,7 +20,9 @@ import java.util.logging.Level;
  * based on a provided {@link MenuUtility} instance.
  *
  * <p>This class handles inventory creation with correct size and type,
- * clearing and setting items according to the current page of buttons.</p>
+ * and setting items according to the current page of buttons. Only the slots
+ * that changed are set, so the viewers do not get the whole inventory sent
+ * again when a few buttons changed.</p>
  *
  * @param <T> The type parameter used by the associated {@link MenuUtility}.
  */
@@ -38,9 +43,11 @@ public class InventoryRenderer<T> {
     /**
      * Redraws the inventory for the current page.
      *
-     * <p>This method clears the existing inventory and populates it with
-     * button items from the current page. If the inventory is missing or its
-     * size is smaller than required, a new inventory will be created.</p>
+     * <p>This method compares the items already in the inventory with the
+     * button items from the current page, and only sets the slots that differ.
+     * If more than half of the slots differ, all items are set at once. If the
+     * inventory is missing or its size is smaller than required, a new inventory
+     * will be created.</p>
      *
      * @return The updated {@link Inventory} instance ready to be displayed.
      */
@@ -49,24 +56,72 @@ public class InventoryRenderer<T> {
         final int page = utility.getPageNumber();
         final int size = utility.getInventorySize();
         Inventory menu = utility.getMenu();
+        boolean newInventory = false;
 
         if (menu == null || size > menu.getSize()) {
             menu = createInventory();
+            newInventory = true;
         }
 
-        menu.clear();
-
+        final ItemStack[] items = new ItemStack[menu.getSize()];
         Map<Integer, ButtonData<T>> buttons = utility.getMenuButtons(page);
         if (buttons != null && !buttons.isEmpty()) {
-            for (int i = 0; i < menu.getSize(); i++) {
+            for (int i = 0; i < items.length; i++) {
                 ButtonData<T> data = buttons.get(i);
-                menu.setItem(i, data != null ? data.getItemStack() : null);
+                items[i] = data != null ? data.getItemStack() : null;
             }
         }
 
+        if (newInventory) {
+            menu.setContents(items);
+            return menu;
+        }
+        setChangedItems(menu, items);
         return menu;
     }
 
+    /**
+     * Set the items that differ from the items already in the inventory. The inventory is
+     * used as the old state, because the animations and the players can change the items
+     * after the last redraw.
+     *
+     * @param menu  the inventory to update.
+     * @param items the items that shall be in the inventory, same length as the inventory.
+     */
+    private void setChangedItems(@Nonnull final Inventory menu, @Nonnull final ItemStack[] items) {
+        final ItemStack[] current = menu.getContents();
+        final boolean[] changedSlots = new boolean[items.length];
+        int changed = 0;
+
+        for (int i = 0; i < items.length; i++) {
+            final ItemStack oldItem = i < current.length ? current[i] : null;
+            if (!isSameItem(oldItem, items[i])) {
+                changedSlots[i] = true;
+                changed++;
+            }
+        }
+        if (changed == 0) return;
+
+        if (changed > items.length / 2) {
+            menu.setContents(items);
+            return;
+        }
+        for (int i = 0; i < items.length; i++) {
+            if (changedSlots[i])
+                menu.setItem(i, items[i]);
+        }
+    }
+
+    private boolean isSameItem(@Nullable final ItemStack oldItem, @Nullable final ItemStack newItem) {
+        if (oldItem == newItem) return true;
+        if (isEmpty(oldItem) || isEmpty(newItem)) return isEmpty(oldItem) && isEmpty(newItem);
+        return oldItem.getAmount() == newItem.getAmount() && oldItem.isSimilar(newItem);
+    }
+
+    private boolean isEmpty(@Nullable final ItemStack itemStack) {
+        return itemStack == null || itemStack.getType() == Material.AIR;
+    }
+
     /**
      * Creates a new Bukkit inventory with the appropriate type and size
      * based on the {@link MenuUtility} configuration.
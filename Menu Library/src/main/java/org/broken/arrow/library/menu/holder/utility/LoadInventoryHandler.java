@@ -6,6 +6,7 @@ import org.broken.arrow.library.menu.MenuUtility;
 import org.broken.arrow.library.menu.RegisterMenuAPI;
 import org.broken.arrow.library.menu.cache.MenuCache;
 import org.broken.arrow.library.menu.cache.MenuCacheKey;
+import org.broken.arrow.library.menu.cache.OpenMenuRegistry;
 import org.broken.arrow.library.menu.utility.MetadataPlayer;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -24,8 +25,10 @@ import javax.annotation.Nonnull;
 public class LoadInventoryHandler<T> {
 
     private final MenuUtility<T> menuUtility;
+    private final RegisterMenuAPI menuAPI;
     private final MetadataPlayer metadataPlayer;
     private final MenuCache menuCache;
+    private final OpenMenuRegistry openMenuRegistry;
     private Location location;
     private String uniqueKey;
     private MenuCacheKey menuCacheKey;
@@ -38,15 +41,17 @@ public class LoadInventoryHandler<T> {
      */
     public LoadInventoryHandler(@Nonnull final MenuUtility<T> menuUtility,@Nonnull final RegisterMenuAPI menuAPI) {
         this.menuUtility = menuUtility;
+        this.menuAPI = menuAPI;
         this.metadataPlayer = menuAPI.getPlayerMeta();
         this.menuCache = menuAPI.getMenuCache();
+        this.openMenuRegistry = menuAPI.getOpenMenuRegistry();
     }
 
     /**
      * Loads the inventory for a player.
      *
      * <p>If {@code loadToCache} is true and a location is set, the menu will be stored and loaded from the cache.
-     * Otherwise, it will attempt to load the inventory from the player's metadata.</p>
+     * Otherwise, the menu is set as the player's open menu and its inventory is used.</p>
      *
      * @param player The player whose inventory should be loaded.
      * @param loadToCache Whether to load and save the menu in the cache.
@@ -70,10 +75,10 @@ public class LoadInventoryHandler<T> {
             }
             menu = menuCached.getMenu();
         } else {
-            MetadataPlayer playerMeta = this.metadataPlayer;
-            playerMeta.setPlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN, menuUtility);
-            final MenuUtility<?> menuCachedAtPlayer = playerMeta.getPlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN);
-            if (menuCachedAtPlayer != null) menu = menuCachedAtPlayer.getMenu();
+            this.openMenuRegistry.setOpenMenu(player, menuUtility);
+            if (this.menuAPI.isUsePlayerMetadata())
+                this.metadataPlayer.setPlayerMenuMetadata(player, MenuMetadataKey.MENU_OPEN, menuUtility);
+            menu = menuUtility.getMenu();
         }
         return menu;
     }
@@ -148,7 +153,7 @@ public class LoadInventoryHandler<T> {
     }
 
     /**
-     * Stores the current menu cache key in the player's metadata based on location and unique key.
+     * Stores the current menu cache key as the player's open menu, based on location and unique key.
      *
      * @param player The player to store metadata for.
      * @param location The location associated with the menu.
@@ -161,7 +166,9 @@ public class LoadInventoryHandler<T> {
         }
         menuCacheKey = this.menuCache.getMenuCacheKey(location, key);
         if (menuCacheKey == null) menuCacheKey = new MenuCacheKey(location, key);
-        this.metadataPlayer.setPlayerLocationMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION, menuCacheKey);
+        this.openMenuRegistry.setOpenMenuLocation(player, menuCacheKey);
+        if (this.menuAPI.isUsePlayerMetadata())
+            this.metadataPlayer.setPlayerLocationMetadata(player, MenuMetadataKey.MENU_OPEN_LOCATION, menuCacheKey);
     }
 
 }
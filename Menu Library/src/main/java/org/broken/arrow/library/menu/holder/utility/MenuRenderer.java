@@ -6,13 +6,20 @@ import org.broken.arrow.library.menu.builders.MenuDataUtility;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.DoubleSupplier;
 import java.util.logging.Level;
 
 /**
  * Responsible for rendering menu pages and managing menu items for each page.
  * This class supports both single-page rendering and caching of multiple pages.
+ * <p>
+ * When a page is opened only that page is rendered, together with the pages inside the
+ * prefetch window set with {@link #setPrefetchPages(int)}. The amount of pages is calculated
+ * from the amount of fill items, so no page has to be rendered to know it.
+ * </p>
  *
  * @param <T> The type of data being rendered as the object connected to the item.
  */
@@ -24,6 +31,7 @@ public class MenuRenderer<T> {
     private int lastFillSlot;
     private int numberOfFillItems;
     private int requiredPages;
+    private int prefetchPages;
 
     /**
      * Constructs a MenuRenderer with the provided utility object.
@@ -74,6 +82,19 @@ public class MenuRenderer<T> {
      * @return the number of required pages
      */
     public int getRequiredPages() {
+        if (requiredPages <= 0)
+            return this.updateRequiredPages();
+        return requiredPages;
+    }
+
+    /**
+     * Calculates the number of pages from the amount of fill items, without
+     * rendering any page.
+     *
+     * @return the number of required pages
+     */
+    public int updateRequiredPages() {
+        requiredPages = Math.max((int) Math.ceil(amountOfPages()), 1);
         return requiredPages;
     }
 
@@ -86,6 +107,30 @@ public class MenuRenderer<T> {
         return numberOfFillItems;
     }
 
+    /**
+     * Gets the amount of pages before and after the current page that are rendered
+     * when the current page is rendered.
+     *
+     * @return the amount of pages on each side of the current page.
+     */
+    public int getPrefetchPages() {
+        return prefetchPages;
+    }
+
+    /**
+     * Sets the amount of pages before and after the current page that are rendered
+     * when the current page is rendered. The default is 0, so only the current page is rendered.
+     * <p>
+     * The pages are not prefetched if {@code shallCacheItems()} returns true, as the rendered
+     * pages are not stored then.
+     * </p>
+     *
+     * @param prefetchPages the amount of pages on each side of the current page.
+     */
+    public void setPrefetchPages(final int prefetchPages) {
+        this.prefetchPages = Math.max(prefetchPages, 0);
+    }
+
     /**
      * Prepares and caches menu items across all available pages.
      * Calculates the number of required pages and fills them by rendering.
@@ -108,22 +153,29 @@ public class MenuRenderer<T> {
 
     /**
      * Prepares and caches menu items for a specific page.
-     * This is useful for rendering on demand.
+     * This is useful for rendering on demand. The pages inside the prefetch window
+     * are rendered too, if they are not already cached and the rendered pages are stored.
      *
      * @param pageNumber the index of the page to render
      * @return the total number of pages that exist
      */
     public int setMenuItemsToPage(final int pageNumber) {
-        requiredPages = Math.max((int) Math.ceil(amountOfPages()), 1);
-        int currentFillSlot = pageNumber * numberOfFillItems;
-
-        this.setStartItemIndex(currentFillSlot);
+        this.updateRequiredPages();
         if (this.lastFillSlot <= 0)
             this.setHighestFillSlot(this.utility.getHighestFillSlot());
-        this.cacheButton(pageNumber);
-
         if (numberOfFillItems <= 0)
-            numberOfFillItems = this.getStartItemIndex();
+            numberOfFillItems = this.countFillSlots();
+
+        this.renderFromIndex(pageNumber);
+        final int itemIndexAfterPage = this.getStartItemIndex();
+        if (this.utility.shallCacheItems())
+            return requiredPages;
+
+        for (int distance = 1; distance <= this.prefetchPages; distance++) {
+            this.prefetchPage(pageNumber + distance);
+            this.prefetchPage(pageNumber - distance);
+        }
+        this.setStartItemIndex(itemIndexAfterPage);
 
         return requiredPages;
     }
@@ -224,6 +276,34 @@ public class MenuRenderer<T> {
         return null;
     }
 
+    private void prefetchPage(final int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= requiredPages || this.utility.containsPage(pageNumber))
+            return;
+        this.renderFromIndex(pageNumber);
+    }
+
+    private void renderFromIndex(final int pageNumber) {
+        this.setStartItemIndex(pageNumber * numberOfFillItems);
+        this.cacheButton(pageNumber);
+    }
+
+    /**
+     * Count the fill slots inside the inventory, it is the same amount of items
+     * {@link #renderPage(int)} adds on one page.
+     *
+     * @return the number of fill items per page.
+     */
+    private int countFillSlots() {
+        final Set<Integer> fillSlots = new HashSet<>(this.utility.getFillSpace());
+        final int size = this.utility.getInventorySize();
+        int amount = 0;
+        for (Integer slot : fillSlots) {
+            if (slot != null && slot >= 0 && slot < size)
+                amount++;
+        }
+        return amount;
+    }
+
     /**
      * Increments the internal item index counter.
      */
@@ -5,37 +5,46 @@ import org.broken.arrow.library.menu.builders.ButtonData;
 import org.broken.arrow.library.menu.builders.MenuDataUtility;
 import org.broken.arrow.library.menu.button.MenuButton;
 import org.broken.arrow.library.menu.button.logic.ButtonAnimationData;
-import org.bukkit.Bukkit;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.Supplier;
 
 /**
  * Handles the periodic animation updates of buttons within a menu inventory.
  * <p>
- * This task runs on a timer and updates specific menu buttons based on configured update times,
- * animating button states or appearances dynamically.
+ * This task runs on the {@link ButtonAnimationScheduler} of the plugin that owns the menu, and updates specific menu buttons
+ * based on configured update times, animating button states or appearances dynamically.
+ * The buttons are kept in a queue sorted by the run they should update next, so every run only
+ * visits the buttons that are due and the buttons added to the menu since the last run.
  * </p>
  *
  * @param <T> the generic type associated with the {@link MenuUtility} used for menu management
  */
 public class ButtonAnimation<T> extends BukkitRunnable {
     private final Map<Integer, Long> timeWhenUpdatesButtons = new HashMap<>();
+    private final Map<Integer, MenuButton> buttons = new HashMap<>();
+    private final PriorityQueue<ButtonTimer> buttonTimers = new PriorityQueue<>();
+    private final List<ButtonTimer> rescheduledTimers = new ArrayList<>();
     private final MenuUtility<T> menuUtility;
     private final int inventorySize;
     private Supplier<ButtonAnimationData> dataSupplier;
     private int counter = 0;
-    private int taskId;
+    private int checkedButtons;
+    private int updatedSlots;
+    private boolean updating;
+    private long timerOrder;
 
     /**
      * Creates a ButtonAnimation tied to a specific {@link MenuUtility}.
@@ -51,11 +60,14 @@ public class ButtonAnimation<T> extends BukkitRunnable {
 
     /**
      * Starts the animation task with a fixed delay between each run cycle.
+     * The task is added to the {@link ButtonAnimationScheduler}, that runs all animations.
      *
      * @param delay the delay in ticks between each animation update
      */
     public void runTask(long delay) {
-        taskId = runTaskTimer(menuUtility.getPlugin(), 1L, delay).getTaskId();
+        final ButtonAnimationScheduler scheduler = menuUtility.getButtonAnimationScheduler();
+        if (scheduler != null)
+            scheduler.schedule(this, delay);
     }
 
     /**
@@ -64,9 +76,8 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * @return Returns {@code true} if the task is running.
      */
     public boolean isRunning() {
-        return taskId > 0 &&
-                (Bukkit.getScheduler().isCurrentlyRunning(taskId) ||
-                        Bukkit.getScheduler().isQueued(taskId));
+        final ButtonAnimationScheduler scheduler = menuUtility.getButtonAnimationScheduler();
+        return scheduler != null && scheduler.isScheduled(this);
     }
 
     /**
@@ -74,9 +85,17 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      * Cancels the scheduled task to cease button updates.
      */
     public void stopTask() {
-        if (this.isRunning()) {
-            Bukkit.getScheduler().cancelTask(this.taskId);
-        }
+        final ButtonAnimationScheduler scheduler = menuUtility.getButtonAnimationScheduler();
+        if (scheduler != null)
+            scheduler.cancel(this);
+    }
+
+    /**
+     * Stops this animation task, same as {@link #stopTask()}.
+     */
+    @Override
+    public synchronized void cancel() {
+        this.stopTask();
     }
 
     /**
@@ -95,35 +114,77 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      */
     @Override
     public void run() {
+        this.updatedSlots = 0;
         ButtonAnimationData buttonAnimationData = this.dataSupplier.get();
         if(buttonAnimationData == null){
-            cancel();
+            stopTask();
             return;
         }
         if(!buttonAnimationData.isSet()){
-            cancel();
+            stopTask();
             return;
         }
+        this.updating = true;
+        try {
+            if (updateDueButtons(buttonAnimationData))
+                return;
+        } finally {
+            this.updating = false;
+            this.buttonTimers.addAll(this.rescheduledTimers);
+            this.rescheduledTimers.clear();
+        }
+        checkNewButtons();
+        counter++;
+    }
 
-        for (final MenuButton menuButton : menuUtility.getButtonsToUpdate()) {
+    /**
+     * Get the amount of slots that was updated on the last run cycle.
+     *
+     * @return the amount of updated slots.
+     */
+    int getUpdatedSlots() {
+        return updatedSlots;
+    }
 
-            final Long timeLeft = getTimeWhenUpdatesButton(menuButton);
-            if (timeLeft != null && timeLeft == -1) continue;
+    private boolean updateDueButtons(final ButtonAnimationData buttonAnimationData) {
+        ButtonTimer timer = this.buttonTimers.peek();
+        while (timer != null && timer.time <= counter) {
+            this.buttonTimers.poll();
+            final MenuButton menuButton = this.buttons.get(timer.buttonId);
+            final Long timeLeft = this.timeWhenUpdatesButtons.get(timer.buttonId);
+            // The time have been changed after this timer was added, so it is an old timer.
+            if (menuButton != null && timeLeft != null && timeLeft == timer.time) {
+                if (timeLeft == 0)
+                    putTimeWhenUpdatesButtons(menuButton, counter + getTime(menuButton));
+                else if (startUpdateButton(menuButton, buttonAnimationData))
+                    return true;
+            }
+            timer = this.buttonTimers.peek();
+        }
+        return false;
+    }
 
-            if (timeLeft == null || timeLeft == 0)
+    /**
+     * Add the buttons added to the menu since the last run. The list only grows while the
+     * menu is open, so only the new part of the list is checked.
+     */
+    private void checkNewButtons() {
+        final List<MenuButton> buttonsToUpdate = menuUtility.getButtonsToUpdate();
+        if (buttonsToUpdate.size() < this.checkedButtons)
+            this.checkedButtons = 0;
+        for (int i = this.checkedButtons; i < buttonsToUpdate.size(); i++) {
+            final MenuButton menuButton = buttonsToUpdate.get(i);
+            if (getTimeWhenUpdatesButton(menuButton) == null)
                 putTimeWhenUpdatesButtons(menuButton, counter + getTime(menuButton));
-            else if (counter >= timeLeft && startUpdateButton(menuButton, buttonAnimationData)) {
-                return;
-            }
         }
-        counter++;
+        this.checkedButtons = buttonsToUpdate.size();
     }
 
     private boolean startUpdateButton(MenuButton menuButton, ButtonAnimationData buttonAnimationData) {
         int pageNumber = buttonAnimationData.getPage();
         final MenuDataUtility<T> menuDataUtility = menuUtility.getMenuData(null,pageNumber);
         if (menuDataUtility == null) {
-            cancel();
+            stopTask();
             return true;
         }
         final Set<Integer> itemSlots = getItemSlotsMap(menuDataUtility, menuButton);
@@ -156,6 +217,7 @@ public class ButtonAnimation<T> extends BukkitRunnable {
             menuDataUtility.putButton(slot, newButtonData);
             menu.setItem(slot, menuItem);
             slotList.remove();
+            this.updatedSlots++;
         }
     }
 
@@ -188,6 +250,15 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      */
     protected void putTimeWhenUpdatesButtons(final MenuButton menuButton, final Long time) {
         this.getTimeWhenUpdatesButtons().put(menuButton.getId(), time);
+        this.buttons.put(menuButton.getId(), menuButton);
+        if (time == null || time == -1) return;
+
+        final ButtonTimer timer = new ButtonTimer(menuButton.getId(), time, this.timerOrder++);
+        // Buttons updated on this run are added after the run, so they are not updated twice.
+        if (this.updating)
+            this.rescheduledTimers.add(timer);
+        else
+            this.buttonTimers.offer(timer);
     }
 
     /**
@@ -216,23 +287,28 @@ public class ButtonAnimation<T> extends BukkitRunnable {
      */
     @Nonnull
     private Set<Integer> getItemSlotsMap(final MenuDataUtility<T> menuDataMap, final MenuButton menuButton) {
-        final Set<Integer> slotList = new HashSet<>();
-        if (menuDataMap == null) return slotList;
-
-        for (int slot = 0; slot < inventorySize; slot++) {
-            final ButtonData<T> addedButtons = menuDataMap.getButton(slot);
-            if (addedButtons == null) continue;
-
-            final MenuButton cacheMenuButton = addedButtons.getMenuButton();
-            final MenuButton fillMenuButton = menuDataMap.getFillMenuButton(slot);
-            final int menuButtonId = menuButton.getId();
-            if (isValidButton(cacheMenuButton, fillMenuButton, menuButtonId))
-                slotList.add(slot);
-        }
+        if (menuDataMap == null) return new HashSet<>();
+
+        final Set<Integer> slotList = menuDataMap.getShownSlots(menuButton);
+        slotList.removeIf(slot -> slot >= inventorySize);
         return slotList;
     }
 
-    private boolean isValidButton(final  MenuButton cacheMenuButton,final  MenuButton fillMenuButton,final  int menuButtonId) {
-        return (cacheMenuButton == null && fillMenuButton != null && fillMenuButton.getId() == menuButtonId) || (cacheMenuButton != null && Objects.equals(menuButtonId, cacheMenuButton.getId()));
+    private static final class ButtonTimer implements Comparable<ButtonTimer> {
+        private final int buttonId;
+        private final long time;
+        private final long order;
+
+        private ButtonTimer(final int buttonId, final long time, final long order) {
+            this.buttonId = buttonId;
+            this.time = time;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(@Nonnull final ButtonTimer other) {
+            final int compare = Long.compare(this.time, other.time);
+            return compare != 0 ? compare : Long.compare(this.order, other.order);
+        }
     }
 }
@@ -0,0 +1,223 @@
+package org.broken.arrow.library.menu.runnable;
+
+import org.broken.arrow.library.logging.Logging;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import javax.annotation.Nonnull;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+
+/**
+ * One timer for the button animations in all open menus of a plugin.
+ * <p>
+ * Every {@link org.broken.arrow.library.menu.RegisterMenuAPI} owns one scheduler, so the timer always runs
+ * with the plugin the menus belong to. It is shut down when that plugin is disabled.
+ * </p>
+ * <p>
+ * Every {@link ButtonAnimation} is registered here instead of starting its own Bukkit task.
+ * The animations are kept in a queue sorted by the tick they should run next, so on every
+ * tick only the animations that are due are visited. The Bukkit task only runs while at least
+ * one animation is registered.
+ * </p>
+ * <p>
+ * All methods must be called from the main thread, except the statistics getters.
+ * </p>
+ */
+public final class ButtonAnimationScheduler implements Runnable {
+
+    private final Logging logger = new Logging(ButtonAnimationScheduler.class);
+
+    private final Plugin plugin;
+    private final PriorityQueue<ScheduledAnimation> queue = new PriorityQueue<>();
+    private final Map<ButtonAnimation<?>, ScheduledAnimation> scheduled = new IdentityHashMap<>();
+    private BukkitTask task;
+    private long currentTick;
+    private long sequence;
+    private volatile int updatesLastTick;
+    private volatile long nanosLastTick;
+    private volatile long totalUpdates;
+    private volatile long totalNanos;
+
+    /**
+     * Create the scheduler for the plugin, use the one from
+     * {@link org.broken.arrow.library.menu.RegisterMenuAPI#getButtonAnimationScheduler()} instead of creating your own.
+     *
+     * @param plugin the plugin that runs the timer.
+     */
+    public ButtonAnimationScheduler(@Nonnull final Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Register the animation to run every period ticks, the first run is on the next tick.
+     * If the animation is already registered, it is restarted with the new period.
+     *
+     * @param animation the animation to run.
+     * @param period    the ticks between every run.
+     */
+    public void schedule(@Nonnull final ButtonAnimation<?> animation, final long period) {
+        this.cancel(animation);
+        final ScheduledAnimation scheduledAnimation = new ScheduledAnimation(animation, Math.max(1, period), this.currentTick + 1, this.sequence++);
+        this.scheduled.put(animation, scheduledAnimation);
+        this.queue.offer(scheduledAnimation);
+        this.startTask();
+    }
+
+    /**
+     * Remove the animation, it will not run again.
+     *
+     * @param animation the animation to remove.
+     */
+    public void cancel(@Nonnull final ButtonAnimation<?> animation) {
+        final ScheduledAnimation scheduledAnimation = this.scheduled.remove(animation);
+        // It is removed from the queue when it is due, that is cheaper than searching the queue.
+        if (scheduledAnimation != null)
+            scheduledAnimation.cancelled = true;
+    }
+
+    /**
+     * Check if the animation is registered.
+     *
+     * @param animation the animation to check.
+     * @return {@code true} if it will run again.
+     */
+    public boolean isScheduled(@Nonnull final ButtonAnimation<?> animation) {
+        return this.scheduled.containsKey(animation);
+    }
+
+    /**
+     * Stop the timer and remove all animations. It is called when the plugin is
+     * disabled, the animations can be scheduled again once the plugin is enabled.
+     */
+    public void shutdown() {
+        for (final ScheduledAnimation scheduledAnimation : this.scheduled.values())
+            scheduledAnimation.cancelled = true;
+        this.scheduled.clear();
+        this.stopTask();
+    }
+
+    /**
+     * Get the amount of animations that are registered.
+     *
+     * @return the amount of running animations.
+     */
+    public int getScheduledAnimations() {
+        return this.scheduled.size();
+    }
+
+    /**
+     * Get how many buttons was updated on the last tick.
+     *
+     * @return the amount of updated buttons.
+     */
+    public int getUpdatesLastTick() {
+        return updatesLastTick;
+    }
+
+    /**
+     * Get how long time the animations took on the last tick.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long getNanosLastTick() {
+        return nanosLastTick;
+    }
+
+    /**
+     * Get how many buttons have been updated since the scheduler was created.
+     *
+     * @return the total amount of updated buttons.
+     */
+    public long getTotalUpdates() {
+        return totalUpdates;
+    }
+
+    /**
+     * Get how long time the animations have taken since the scheduler was created.
+     *
+     * @return the total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Run the animations that are due on this tick. It is called by the Bukkit task
+     * every tick, do not call it yourself.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final long tick = ++this.currentTick;
+        int updates = 0;
+
+        ScheduledAnimation next = this.queue.peek();
+        while (next != null && next.nextTick <= tick) {
+            this.queue.poll();
+            if (!next.cancelled) {
+                try {
+                    next.animation.run();
+                    updates += next.animation.getUpdatedSlots();
+                } catch (RuntimeException e) {
+                    // Keep it running like its own task would, one broken menu should not stop the others.
+                    logger.log(Level.WARNING, e, () -> "Failed to update the animated buttons in a menu.");
+                }
+                if (!next.cancelled) {
+                    next.nextTick = tick + next.period;
+                    this.queue.offer(next);
+                }
+            }
+            next = this.queue.peek();
+        }
+
+        final long time = System.nanoTime() - start;
+        this.updatesLastTick = updates;
+        this.nanosLastTick = time;
+        this.totalUpdates += updates;
+        this.totalNanos += time;
+        if (this.scheduled.isEmpty())
+            this.stopTask();
+    }
+
+    private void startTask() {
+        // Bukkit does not accept tasks from a disabled plugin.
+        if (!this.plugin.isEnabled())
+            return;
+        if (this.task != null && (Bukkit.getScheduler().isCurrentlyRunning(this.task.getTaskId()) || Bukkit.getScheduler().isQueued(this.task.getTaskId())))
+            return;
+        this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this, 1L, 1L);
+    }
+
+    private void stopTask() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+        this.queue.clear();
+    }
+
+    private static final class ScheduledAnimation implements Comparable<ScheduledAnimation> {
+        private final ButtonAnimation<?> animation;
+        private final long period;
+        private final long order;
+        private long nextTick;
+        private boolean cancelled;
+
+        private ScheduledAnimation(final ButtonAnimation<?> animation, final long period, final long nextTick, final long order) {
+            this.animation = animation;
+            this.period = period;
+            this.nextTick = nextTick;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(@Nonnull final ScheduledAnimation other) {
+            final int compare = Long.compare(this.nextTick, other.nextTick);
+            return compare != 0 ? compare : Long.compare(this.order, other.order);
+        }
+    }
+}
@@ -17,13 +17,17 @@ import org.bukkit.configuration.MemorySection;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -35,10 +39,16 @@ import java.util.stream.Collectors;
  * The class also handles serialization of Bukkit-specific types and custom serializable objects.
  * <p>
  * Note: If an object does not have a known serialization method, a SerializeFailedException will be thrown.
+ * <p>
+ * The serializer for a class is looked up the first time an object of that class is serialized, and
+ * kept for that class. Custom serializers set with {@link #registerSerializer(Class, Function)} are
+ * checked before the built-in types.
  */
 
 final class DataSerializer {
 	private static final float SERVER_VERSION;
+	private static final List<CustomSerializer> CUSTOM_SERIALIZERS = new CopyOnWriteArrayList<>();
+	private static volatile ClassValue<Function<Object, Object>> serializers = createSerializers();
 
 	private DataSerializer() {}
 
@@ -73,47 +83,86 @@ final class DataSerializer {
 		if (obj == null) {
 			return null;
 		}
+		return serializers.get(obj.getClass()).apply(obj);
+	}
+
+	/**
+	 * Register a serializer for the type and all subclasses of it. The custom serializers are
+	 * checked in the order they are registered, before the built-in types.
+	 *
+	 * @param type       the type to serialize.
+	 * @param serializer the function that serialize the object.
+	 * @param <T>        the type of the object.
+	 */
+	static <T> void registerSerializer(@Nonnull final Class<T> type, @Nonnull final Function<? super T, Object> serializer) {
+		CUSTOM_SERIALIZERS.add(new CustomSerializer(type, obj -> serializer.apply(type.cast(obj))));
+		// The serializers already found for other classes may have changed, so start over.
+		serializers = createSerializers();
+	}
+
+	private static ClassValue<Function<Object, Object>> createSerializers() {
+		return new ClassValue<Function<Object, Object>>() {
+			@Override
+			protected Function<Object, Object> computeValue(@Nonnull final Class<?> type) {
+				return findSerializer(type);
+			}
+		};
+	}
 
-		if (obj instanceof ChatColor) {
-			return serializeChatColor((ChatColor) obj);
-		} else if (obj instanceof net.md_5.bungee.api.ChatColor) {
-			return serializeBungeeChatColor((net.md_5.bungee.api.ChatColor) obj);
-		} else if (obj instanceof Location) {
-			return LocationSerializer.serializeLocYaw((Location) obj);
-		} else if (obj instanceof UUID || obj instanceof Enum<?>) {
-			return obj.toString();
-		} else if (obj instanceof CommandSender) {
-			return ((CommandSender) obj).getName();
-		} else if (obj instanceof World) {
-			return ((World) obj).getName();
-		} else if (obj instanceof PotionEffect) {
-			return ((PotionEffect) obj).serialize();
-		} else if (obj instanceof java.awt.Color) {
-			return "#" + ((java.awt.Color) obj).getRGB();
-		} else if (obj instanceof BaseComponent) {
-			return toJson((BaseComponent) obj);
-		} else if (obj instanceof BaseComponent[]) {
-			return toJson((BaseComponent[]) obj);
-		} else if (obj instanceof HoverEvent) {
-			return serializeHoverEvent((HoverEvent) obj);
-		} else if (obj instanceof ClickEvent) {
-			return serializeClickEvent((ClickEvent) obj);
-		} else if (obj instanceof Iterable || obj.getClass().isArray()) {
-			return serializeIterableOrArray(obj);
-		} else if (obj instanceof Map) {
-			return serializeMap(obj);
-		} else if (obj instanceof Integer || obj instanceof Double || obj instanceof Float ||
-				obj instanceof Long || obj instanceof Short || obj instanceof String ||
-				obj instanceof Boolean || obj instanceof ItemStack || obj instanceof MemorySection ||
-				obj instanceof Pattern) {
-			return obj;
-		} else if (obj instanceof org.bukkit.configuration.serialization.ConfigurationSerializable) {
-			return ((org.bukkit.configuration.serialization.ConfigurationSerializable) obj).serialize();
-		} else if (obj instanceof ConfigurationSerializable) {
-			return ((ConfigurationSerializable) obj).serialize();
+	/**
+	 * Find the serializer for the class, the types are checked in the same order
+	 * as they always have been.
+	 *
+	 * @param clazz the class of the object to serialize.
+	 * @return the function that serialize objects of this class.
+	 */
+	private static Function<Object, Object> findSerializer(final Class<?> clazz) {
+		for (CustomSerializer custom : CUSTOM_SERIALIZERS)
+			if (custom.type.isAssignableFrom(clazz))
+				return custom.serializer;
+
+		if (ChatColor.class.isAssignableFrom(clazz)) {
+			return obj -> serializeChatColor((ChatColor) obj);
+		} else if (net.md_5.bungee.api.ChatColor.class.isAssignableFrom(clazz)) {
+			return obj -> serializeBungeeChatColor((net.md_5.bungee.api.ChatColor) obj);
+		} else if (Location.class.isAssignableFrom(clazz)) {
+			return obj -> LocationSerializer.serializeLocYaw((Location) obj);
+		} else if (UUID.class.isAssignableFrom(clazz) || Enum.class.isAssignableFrom(clazz)) {
+			return Object::toString;
+		} else if (CommandSender.class.isAssignableFrom(clazz)) {
+			return obj -> ((CommandSender) obj).getName();
+		} else if (World.class.isAssignableFrom(clazz)) {
+			return obj -> ((World) obj).getName();
+		} else if (PotionEffect.class.isAssignableFrom(clazz)) {
+			return obj -> ((PotionEffect) obj).serialize();
+		} else if (java.awt.Color.class.isAssignableFrom(clazz)) {
+			return obj -> "#" + ((java.awt.Color) obj).getRGB();
+		} else if (BaseComponent.class.isAssignableFrom(clazz)) {
+			return obj -> toJson((BaseComponent) obj);
+		} else if (BaseComponent[].class.isAssignableFrom(clazz)) {
+			return obj -> toJson((BaseComponent[]) obj);
+		} else if (HoverEvent.class.isAssignableFrom(clazz)) {
+			return obj -> serializeHoverEvent((HoverEvent) obj);
+		} else if (ClickEvent.class.isAssignableFrom(clazz)) {
+			return obj -> serializeClickEvent((ClickEvent) obj);
+		} else if (Iterable.class.isAssignableFrom(clazz) || clazz.isArray()) {
+			return DataSerializer::serializeIterableOrArray;
+		} else if (Map.class.isAssignableFrom(clazz)) {
+			return DataSerializer::serializeMap;
+		} else if (clazz == Integer.class || clazz == Double.class || clazz == Float.class ||
+				clazz == Long.class || clazz == Short.class || clazz == String.class ||
+				clazz == Boolean.class || ItemStack.class.isAssignableFrom(clazz) || MemorySection.class.isAssignableFrom(clazz) ||
+				clazz == Pattern.class) {
+			return Function.identity();
+		} else if (org.bukkit.configuration.serialization.ConfigurationSerializable.class.isAssignableFrom(clazz)) {
+			return obj -> ((org.bukkit.configuration.serialization.ConfigurationSerializable) obj).serialize();
+		} else if (ConfigurationSerializable.class.isAssignableFrom(clazz)) {
+			return obj -> ((ConfigurationSerializable) obj).serialize();
 		}
-		throw new SerializeFailedException("Does not know how to serialize " +
-				obj.getClass().getSimpleName() + "! Does it extend ConfigSerializable? Data: " + obj);
+		return obj -> {
+			throw new SerializeFailedException("Does not know how to serialize " +
+					obj.getClass().getSimpleName() + "! Does it extend ConfigSerializable? Data: " + obj);
+		};
 	}
 
 	private static Object serializeChatColor(ChatColor chatColor) {
@@ -139,13 +188,21 @@ final class DataSerializer {
 	}
 
 	private static Object serializeIterableOrArray(Object obj) {
-		List<Object> serialized = new ArrayList<>();
-		if (obj instanceof Iterable) {
+		final List<Object> serialized;
+		if (obj instanceof Collection) {
+			serialized = new ArrayList<>(((Collection<?>) obj).size());
+			for (Object element : (Collection<?>) obj) {
+				serialized.add(serialize(element));
+			}
+		} else if (obj instanceof Iterable) {
+			serialized = new ArrayList<>();
 			for (Object element : (Iterable<?>) obj) {
 				serialized.add(serialize(element));
 			}
 		} else {
-			for (Object element : (Object[]) obj) {
+			final Object[] array = (Object[]) obj;
+			serialized = new ArrayList<>(array.length);
+			for (Object element : array) {
 				serialized.add(serialize(element));
 			}
 		}
@@ -154,7 +211,7 @@ final class DataSerializer {
 
 	private static Object serializeMap(Object obj) {
 		Map<?, ?> oldMap = (Map<?, ?>) obj;
-		Map<Object, Object> newMap = new LinkedHashMap<>();
+		Map<Object, Object> newMap = new LinkedHashMap<>((int) (oldMap.size() / 0.75F) + 1);
 
 		for (Map.Entry<?, ?> entry : oldMap.entrySet()) {
 			newMap.put(serialize(entry.getKey()), serialize(entry.getValue()));
@@ -175,6 +232,16 @@ final class DataSerializer {
 		return json;
 	}
 
+	private static final class CustomSerializer {
+		private final Class<?> type;
+		private final Function<Object, Object> serializer;
+
+		private CustomSerializer(final Class<?> type, final Function<Object, Object> serializer) {
+			this.type = type;
+			this.serializer = serializer;
+		}
+	}
+
 	public static class SerializeFailedException extends RuntimeException {
 		private static final long serialVersionUID = 2L;
 
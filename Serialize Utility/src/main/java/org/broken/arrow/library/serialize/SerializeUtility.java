@@ -50,6 +50,19 @@ public class SerializeUtility {
         return DataSerializer.serialize(obj);
     }
 
+    /**
+     * Register your own serializer used by {@link #serialize(Object)}, for the type and all
+     * subclasses of it. The serializers you register are checked before the built-in types,
+     * in the order you registered them.
+     *
+     * @param type       the type to serialize.
+     * @param serializer the function that serialize the object to a value that can be saved.
+     * @param <T>        the type of the object.
+     */
+    public static <T> void registerSerializer(final Class<T> type, final Function<? super T, Object> serializer) {
+        DataSerializer.registerSerializer(type, serializer);
+    }
+
     private static class Serialize<K, V> {
         private final Map<K, V> map;
         private final Function<V, Map<String, Object>> serializingData;
@@ -0,0 +1,584 @@
+package org.broken.arrow.library.serialize.utility.converters;
+
+import org.broken.arrow.library.logging.Logging;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact binary format for arrays of ItemStacks, like the contents of an inventory. It is smaller and
+ * faster than {@link Base64ItemStackConverter}, which writes every item with Java serialization.
+ * <p>
+ * Every item is written as the material name, the amount and the rest of the serialized item, like the
+ * meta. The text in the data is only written once, after that the same text is written as a number.
+ * Empty slots in a row are written as one entry. The data can also be compressed, this is on by default.
+ * </p>
+ * <p>
+ * The format starts with a version, so data saved with this version can always be read by later versions.
+ * Use {@link #decodeFromString(String)} to read both this format and the old Base64 format, so you can
+ * move your saved data over to the new format when it is saved again.
+ * </p>
+ * <p>
+ * Note: one instance reuse its buffers between calls and is not thread-safe, create one instance for
+ * every thread.
+ * </p>
+ */
+public final class ItemStackCodec {
+	private static final Logging log = new Logging(ItemStackCodec.class);
+
+	/**
+	 * The version of the format written by this class.
+	 */
+	public static final int VERSION = 1;
+
+	private static final byte MAGIC_FIRST = 'B';
+	private static final byte MAGIC_SECOND = 'I';
+	private static final int FLAG_COMPRESSED = 1;
+
+	private static final int SLOT_EMPTY = 0;
+	private static final int SLOT_ITEM = 1;
+
+	private static final int TYPE_NULL = 0;
+	private static final int TYPE_STRING = 1;
+	private static final int TYPE_INT = 2;
+	private static final int TYPE_LONG = 3;
+	private static final int TYPE_DOUBLE = 4;
+	private static final int TYPE_FLOAT = 5;
+	private static final int TYPE_SHORT = 6;
+	private static final int TYPE_BYTE = 7;
+	private static final int TYPE_TRUE = 8;
+	private static final int TYPE_FALSE = 9;
+	private static final int TYPE_LIST = 10;
+	private static final int TYPE_MAP = 11;
+	private static final int TYPE_SERIALIZABLE = 12;
+	private static final int TYPE_OBJECT = 13;
+
+	private final boolean compress;
+	private final Output output = new Output(1024);
+	private final Output compressed = new Output(1024);
+	private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+	private final Inflater inflater = new Inflater(true);
+	private final Map<String, Integer> writeDictionary = new HashMap<>();
+	private final List<String> readDictionary = new ArrayList<>();
+	private byte[] inflateBuffer = new byte[1024];
+
+	/**
+	 * Create a codec that compress the data.
+	 */
+	public ItemStackCodec() {
+		this(true);
+	}
+
+	/**
+	 * Create a codec.
+	 *
+	 * @param compress set to {@code true} to compress the data, it is a fast compression
+	 *                 that makes the data a lot smaller for most inventories.
+	 */
+	public ItemStackCodec(final boolean compress) {
+		this.compress = compress;
+	}
+
+	/**
+	 * Convert the items to the binary format.
+	 *
+	 * @param items the items to convert, empty slots can be {@code null}.
+	 * @return the items in the binary format, or {@code null} if an item could not be written.
+	 */
+	@Nullable
+	public byte[] encode(@Nonnull final ItemStack[] items) {
+		try {
+			return this.write(items);
+		} catch (final IOException exception) {
+			log.log(exception, () -> "Failed to convert the items to binary");
+			return null;
+		}
+	}
+
+	/**
+	 * Convert the items back from the binary format.
+	 *
+	 * @param data the data from {@link #encode(ItemStack[])}.
+	 * @return the items, or an empty array if the data could not be read.
+	 */
+	@Nonnull
+	public ItemStack[] decode(@Nonnull final byte[] data) {
+		try {
+			return this.read(data);
+		} catch (final IOException | DataFormatException | RuntimeException exception) {
+			log.log(exception, () -> "Failed to convert the items from binary");
+			return new ItemStack[0];
+		}
+	}
+
+	/**
+	 * Convert many inventories to the binary format, the buffers are reused between every inventory.
+	 *
+	 * @param inventories the items for every inventory.
+	 * @return the data for every inventory, in the same order.
+	 */
+	@Nonnull
+	public List<byte[]> encodeAll(@Nonnull final Collection<ItemStack[]> inventories) {
+		final List<byte[]> encoded = new ArrayList<>(inventories.size());
+		for (ItemStack[] items : inventories)
+			encoded.add(this.encode(items));
+		return encoded;
+	}
+
+	/**
+	 * Convert many inventories back from the binary format, the buffers are reused between every inventory.
+	 *
+	 * @param inventories the data for every inventory.
+	 * @return the items for every inventory, in the same order.
+	 */
+	@Nonnull
+	public List<ItemStack[]> decodeAll(@Nonnull final Collection<byte[]> inventories) {
+		final List<ItemStack[]> decoded = new ArrayList<>(inventories.size());
+		for (byte[] data : inventories)
+			decoded.add(this.decode(data));
+		return decoded;
+	}
+
+	/**
+	 * Convert the items to the binary format as Base64 text without line breaks,
+	 * so it can be saved in a text column or a file.
+	 *
+	 * @param items the items to convert, empty slots can be {@code null}.
+	 * @return the items as text, or {@code null} if an item could not be written.
+	 */
+	@Nullable
+	public String encodeToString(@Nonnull final ItemStack[] items) {
+		final byte[] data = this.encode(items);
+		return data != null ? Base64.getEncoder().encodeToString(data) : null;
+	}
+
+	/**
+	 * Convert the items back from the text. This can also read the text from
+	 * {@link Base64ItemStackConverter#itemStackArrayToBase64(ItemStack[])}.
+	 *
+	 * @param data the text from {@link #encodeToString(ItemStack[])} or the old Base64 format.
+	 * @return the items, or an empty array if the text could not be read.
+	 */
+	@Nonnull
+	public ItemStack[] decodeFromString(@Nonnull final String data) {
+		final byte[] bytes;
+		try {
+			bytes = Base64.getMimeDecoder().decode(data);
+		} catch (final IllegalArgumentException exception) {
+			log.log(exception, () -> "Failed to convert the items from text");
+			return new ItemStack[0];
+		}
+		if (isLegacyFormat(bytes))
+			return Base64ItemStackConverter.itemStackArrayFromBase64(data);
+		return this.decode(bytes);
+	}
+
+	/**
+	 * Check if the data is written by {@link Base64ItemStackConverter}, it starts with the
+	 * header from Java serialization.
+	 *
+	 * @param data the decoded data.
+	 * @return {@code true} if it is the old format.
+	 */
+	public static boolean isLegacyFormat(@Nonnull final byte[] data) {
+		return data.length >= 2 && (data[0] & 0xFF) == 0xAC && (data[1] & 0xFF) == 0xED;
+	}
+
+	private byte[] write(final ItemStack[] items) throws IOException {
+		final Output out = this.output;
+		out.reset();
+		this.writeDictionary.clear();
+
+		out.writeVarInt(items.length);
+		int slot = 0;
+		while (slot < items.length) {
+			if (items[slot] == null) {
+				int empty = 0;
+				while (slot < items.length && items[slot] == null) {
+					empty++;
+					slot++;
+				}
+				out.write(SLOT_EMPTY);
+				out.writeVarInt(empty);
+				continue;
+			}
+			out.write(SLOT_ITEM);
+			this.writeItem(out, items[slot]);
+			slot++;
+		}
+
+		final Output body;
+		int flags = 0;
+		if (this.compress) {
+			body = this.deflate(out);
+			flags |= FLAG_COMPRESSED;
+		} else {
+			body = out;
+		}
+		final byte[] data = new byte[4 + body.size()];
+		data[0] = MAGIC_FIRST;
+		data[1] = MAGIC_SECOND;
+		data[2] = VERSION;
+		data[3] = (byte) flags;
+		System.arraycopy(body.buffer(), 0, data, 4, body.size());
+		return data;
+	}
+
+	private void writeItem(final Output out, final ItemStack item) throws IOException {
+		final Map<String, Object> serialized = new LinkedHashMap<>(item.serialize());
+		serialized.remove("type");
+		serialized.remove("amount");
+		this.writeString(out, item.getType().name());
+		out.writeVarInt(item.getAmount());
+		this.writeMap(out, serialized);
+	}
+
+	private void writeValue(final Output out, final Object value) throws IOException {
+		if (value == null) {
+			out.write(TYPE_NULL);
+		} else if (value instanceof String) {
+			out.write(TYPE_STRING);
+			this.writeString(out, (String) value);
+		} else if (value instanceof Integer) {
+			out.write(TYPE_INT);
+			out.writeVarLong((Integer) value);
+		} else if (value instanceof Long) {
+			out.write(TYPE_LONG);
+			out.writeVarLong((Long) value);
+		} else if (value instanceof Double) {
+			out.write(TYPE_DOUBLE);
+			out.writeLong(Double.doubleToRawLongBits((Double) value));
+		} else if (value instanceof Float) {
+			out.write(TYPE_FLOAT);
+			out.writeInt(Float.floatToRawIntBits((Float) value));
+		} else if (value instanceof Short) {
+			out.write(TYPE_SHORT);
+			out.writeVarLong((Short) value);
+		} else if (value instanceof Byte) {
+			out.write(TYPE_BYTE);
+			out.write((Byte) value);
+		} else if (value instanceof Boolean) {
+			out.write((Boolean) value ? TYPE_TRUE : TYPE_FALSE);
+		} else if (value instanceof List) {
+			final List<?> list = (List<?>) value;
+			out.write(TYPE_LIST);
+			out.writeVarInt(list.size());
+			for (Object element : list)
+				this.writeValue(out, element);
+		} else if (value instanceof Map && this.hasStringKeys((Map<?, ?>) value)) {
+			out.write(TYPE_MAP);
+			this.writeMap(out, (Map<?, ?>) value);
+		} else if (value instanceof ConfigurationSerializable) {
+			out.write(TYPE_SERIALIZABLE);
+			this.writeString(out, ConfigurationSerialization.getAlias(((ConfigurationSerializable) value).getClass()));
+			this.writeMap(out, ((ConfigurationSerializable) value).serialize());
+		} else {
+			// Types not known by this format are written with Bukkit's serialization, so no data is lost.
+			out.write(TYPE_OBJECT);
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (BukkitObjectOutputStream objectOutput = new BukkitObjectOutputStream(bytes)) {
+				objectOutput.writeObject(value);
+			}
+			out.writeVarInt(bytes.size());
+			out.write(bytes.toByteArray());
+		}
+	}
+
+	private void writeMap(final Output out, final Map<?, ?> map) throws IOException {
+		out.writeVarInt(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			this.writeString(out, (String) entry.getKey());
+			this.writeValue(out, entry.getValue());
+		}
+	}
+
+	private boolean hasStringKeys(final Map<?, ?> map) {
+		for (Object key : map.keySet())
+			if (!(key instanceof String))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Write the text the first time it is used, after that only the index of the text.
+	 */
+	private void writeString(final Output out, final String text) {
+		final Integer index = this.writeDictionary.get(text);
+		if (index != null) {
+			out.writeVarInt(index + 1);
+			return;
+		}
+		this.writeDictionary.put(text, this.writeDictionary.size());
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeVarInt(0);
+		out.writeVarInt(bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private Output deflate(final Output out) {
+		final Output target = this.compressed;
+		target.reset();
+		target.writeVarInt(out.size());
+		this.deflater.reset();
+		this.deflater.setInput(out.buffer(), 0, out.size());
+		this.deflater.finish();
+		final byte[] chunk = this.inflateBuffer;
+		while (!this.deflater.finished()) {
+			final int length = this.deflater.deflate(chunk);
+			target.write(chunk, 0, length);
+		}
+		return target;
+	}
+
+	private ItemStack[] read(final byte[] data) throws IOException, DataFormatException {
+		if (data.length < 4 || data[0] != MAGIC_FIRST || data[1] != MAGIC_SECOND)
+			throw new IOException("The data is not in the binary item format.");
+		final int version = data[2];
+		if (version < 1 || version > VERSION)
+			throw new IOException("The data is written with version " + version + ", this version can read up to version " + VERSION + ".");
+
+		Input in = new Input(data, 4, data.length);
+		if ((data[3] & FLAG_COMPRESSED) != 0) {
+			final int length = in.readVarInt();
+			in = new Input(this.inflate(data, in.position, length), 0, length);
+		}
+		this.readDictionary.clear();
+
+		final ItemStack[] items = new ItemStack[in.readVarInt()];
+		int slot = 0;
+		while (slot < items.length) {
+			final int type = in.read();
+			if (type == SLOT_EMPTY) {
+				slot += in.readVarInt();
+				continue;
+			}
+			if (type != SLOT_ITEM)
+				throw new IOException("Unknown slot type " + type + " at slot " + slot);
+			items[slot++] = this.readItem(in);
+		}
+		return items;
+	}
+
+	private ItemStack readItem(final Input in) throws IOException {
+		final String material = this.readString(in);
+		final int amount = in.readVarInt();
+		final Map<String, Object> serialized = new LinkedHashMap<>();
+		serialized.put("type", material);
+		serialized.put("amount", amount);
+		serialized.putAll(this.readMap(in));
+		return ItemStack.deserialize(serialized);
+	}
+
+	private Object readValue(final Input in) throws IOException {
+		final int type = in.read();
+		switch (type) {
+			case TYPE_NULL:
+				return null;
+			case TYPE_STRING:
+				return this.readString(in);
+			case TYPE_INT:
+				return (int) in.readVarLong();
+			case TYPE_LONG:
+				return in.readVarLong();
+			case TYPE_DOUBLE:
+				return Double.longBitsToDouble(in.readLong());
+			case TYPE_FLOAT:
+				return Float.intBitsToFloat(in.readInt());
+			case TYPE_SHORT:
+				return (short) in.readVarLong();
+			case TYPE_BYTE:
+				return (byte) in.read();
+			case TYPE_TRUE:
+				return true;
+			case TYPE_FALSE:
+				return false;
+			case TYPE_LIST: {
+				final int size = in.readVarInt();
+				final List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++)
+					list.add(this.readValue(in));
+				return list;
+			}
+			case TYPE_MAP:
+				return this.readMap(in);
+			case TYPE_SERIALIZABLE: {
+				final String alias = this.readString(in);
+				final Map<String, Object> serialized = new LinkedHashMap<>();
+				serialized.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+				serialized.putAll(this.readMap(in));
+				return ConfigurationSerialization.deserializeObject(serialized);
+			}
+			case TYPE_OBJECT: {
+				final int length = in.readVarInt();
+				try (BukkitObjectInputStream objectInput = new BukkitObjectInputStream(new ByteArrayInputStream(in.data, in.position, length))) {
+					in.position += length;
+					return objectInput.readObject();
+				} catch (final ClassNotFoundException exception) {
+					throw new IOException(exception);
+				}
+			}
+			default:
+				throw new IOException("Unknown value type " + type);
+		}
+	}
+
+	private Map<String, Object> readMap(final Input in) throws IOException {
+		final int size = in.readVarInt();
+		final Map<String, Object> map = new LinkedHashMap<>((int) (size / 0.75F) + 1);
+		for (int i = 0; i < size; i++) {
+			final String key = this.readString(in);
+			map.put(key, this.readValue(in));
+		}
+		return map;
+	}
+
+	private String readString(final Input in) throws IOException {
+		final int index = in.readVarInt();
+		if (index > 0) {
+			if (index > this.readDictionary.size())
+				throw new IOException("Unknown text index " + index);
+			return this.readDictionary.get(index - 1);
+		}
+		final int length = in.readVarInt();
+		in.require(length);
+		final String text = new String(in.data, in.position, length, StandardCharsets.UTF_8);
+		in.position += length;
+		this.readDictionary.add(text);
+		return text;
+	}
+
+	private byte[] inflate(final byte[] data, final int offset, final int length) throws DataFormatException, IOException {
+		if (this.inflateBuffer.length < length)
+			this.inflateBuffer = new byte[Math.max(length, this.inflateBuffer.length * 2)];
+		this.inflater.reset();
+		this.inflater.setInput(data, offset, data.length - offset);
+		int read = 0;
+		while (read < length) {
+			final int inflated = this.inflater.inflate(this.inflateBuffer, read, length - read);
+			if (inflated == 0 && (this.inflater.finished() || this.inflater.needsInput()))
+				throw new IOException("The compressed data is shorter than expected.");
+			read += inflated;
+		}
+		return this.inflateBuffer;
+	}
+
+	/**
+	 * A byte buffer that can be reused and gives access to the written bytes without a copy.
+	 */
+	private static final class Output extends ByteArrayOutputStream {
+
+		private Output(final int size) {
+			super(size);
+		}
+
+		private byte[] buffer() {
+			return this.buf;
+		}
+
+		private void writeVarInt(final int value) {
+			int remaining = value;
+			while ((remaining & ~0x7F) != 0) {
+				this.write((remaining & 0x7F) | 0x80);
+				remaining >>>= 7;
+			}
+			this.write(remaining);
+		}
+
+		private void writeVarLong(final long value) {
+			// Zigzag, so small negative numbers are also written with few bytes.
+			long remaining = (value << 1) ^ (value >> 63);
+			while ((remaining & ~0x7FL) != 0) {
+				this.write((int) ((remaining & 0x7F) | 0x80));
+				remaining >>>= 7;
+			}
+			this.write((int) remaining);
+		}
+
+		private void writeInt(final int value) {
+			this.write(value >>> 24);
+			this.write(value >>> 16);
+			this.write(value >>> 8);
+			this.write(value);
+		}
+
+		private void writeLong(final long value) {
+			this.writeInt((int) (value >>> 32));
+			this.writeInt((int) value);
+		}
+	}
+
+	private static final class Input {
+		private final byte[] data;
+		private final int limit;
+		private int position;
+
+		private Input(final byte[] data, final int position, final int limit) {
+			this.data = data;
+			this.position = position;
+			this.limit = limit;
+		}
+
+		private void require(final int length) throws IOException {
+			if (length < 0 || this.position + length > this.limit)
+				throw new IOException("The data ended before it was fully read.");
+		}
+
+		private int read() throws IOException {
+			this.require(1);
+			return this.data[this.position++] & 0xFF;
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				final int current = this.read();
+				value |= (current & 0x7F) << shift;
+				if ((current & 0x80) == 0)
+					return value;
+			}
+			throw new IOException("Too long number in the data.");
+		}
+
+		private long readVarLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 70; shift += 7) {
+				final int current = this.read();
+				value |= (long) (current & 0x7F) << shift;
+				if ((current & 0x80) == 0)
+					return (value >>> 1) ^ -(value & 1);
+			}
+			throw new IOException("Too long number in the data.");
+		}
+
+		private int readInt() throws IOException {
+			this.require(4);
+			final int value = ((this.data[this.position] & 0xFF) << 24) | ((this.data[this.position + 1] & 0xFF) << 16)
+					| ((this.data[this.position + 2] & 0xFF) << 8) | (this.data[this.position + 3] & 0xFF);
+			this.position += 4;
+			return value;
+		}
+
+		private long readLong() throws IOException {
+			return ((long) this.readInt() << 32) | (this.readInt() & 0xFFFFFFFFL);
+		}
+	}
+}
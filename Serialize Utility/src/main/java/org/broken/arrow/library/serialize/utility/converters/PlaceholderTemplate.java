@@ -0,0 +1,250 @@
+package org.broken.arrow.library.serialize.utility.converters;
+
+import org.broken.arrow.library.color.utility.PlaceholderSlots;
+import org.broken.arrow.library.serialize.utility.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A text compiled once by {@link PlaceholderTranslator#compile(String)}, so the placeholders
+ * can be replaced many times without searching the text again.
+ * <p>
+ * The text is split on every <strong>{0}</strong> or <strong>{name}</strong> placeholder, and
+ * rendering only joins the text parts and the values in one pass. Placeholders without a value,
+ * or with a {@link List} as value, are left as they are.
+ * </p>
+ * <p>
+ * Note: a value is never searched for placeholders, so a value with <strong>{1}</strong> in it
+ * is added as it is.
+ * </p>
+ */
+public final class PlaceholderTemplate {
+
+    private static final Object NO_VALUE = new Object();
+
+    private final String raw;
+    private final String[] parts;
+    private final String[] slots;
+    private final int[] indexes;
+    private final Set<String> slotNames;
+
+    private PlaceholderTemplate(final String raw, final String[] parts, final String[] slots) {
+        this.raw = raw;
+        this.parts = parts;
+        this.slots = slots;
+        this.indexes = new int[slots.length];
+        for (int i = 0; i < slots.length; i++)
+            this.indexes[i] = PlaceholderSlots.parseIndex(slots[i]);
+        this.slotNames = new HashSet<>();
+        Collections.addAll(this.slotNames, slots);
+    }
+
+    /**
+     * Compile the text, use {@link PlaceholderTranslator#compile(String)} to get a cached template.
+     *
+     * @param raw the text with placeholders.
+     * @return the compiled template.
+     */
+    @Nonnull
+    static PlaceholderTemplate compile(@Nonnull final String raw) {
+        final List<String> textParts = new ArrayList<>();
+        final List<String> slotNames = new ArrayList<>();
+        PlaceholderSlots.split(raw, textParts, slotNames);
+        return new PlaceholderTemplate(raw, textParts.toArray(new String[0]), slotNames.toArray(new String[0]));
+    }
+
+    /**
+     * Replace the placeholders by index, so <strong>{0}</strong> is replaced with the first value.
+     *
+     * @param replacements the pair of replacements for the boolean values, or {@code null} to keep them.
+     *                     The first element will replace 'true' and the second will replace 'false'.
+     * @param values       the values to replace the placeholders with.
+     * @return the translated text.
+     */
+    @Nonnull
+    public String render(@Nullable final Pair<String, String> replacements, @Nullable final Object... values) {
+        final String text = this.renderIndexed(values, -1, null);
+        if (replacements != null)
+            return PlaceholderTranslator.replaceBooleans(text, replacements);
+        return text;
+    }
+
+    /**
+     * Replace the placeholders by name, so <strong>{player}</strong> is replaced with the value for
+     * the key {@code player}.
+     * <p>
+     * Keys not set as a placeholder in the text are replaced where the key is found in the text,
+     * like {@link PlaceholderTranslator#translatePlaceholders(String, Map)} always have done.
+     *
+     * @param values the placeholder names and values.
+     * @return the translated text.
+     */
+    @Nonnull
+    public String render(@Nullable final Map<String, Object> values) {
+        if (values == null || values.isEmpty())
+            return this.raw;
+        return this.replaceOtherKeys(this.renderNamed(values, null, null), values);
+    }
+
+    /**
+     * Replace the placeholders for every text in the list. If one of the values is a {@link List},
+     * every text with that placeholder is added once for every element in the list.
+     *
+     * @param templates    the compiled texts from {@link PlaceholderTranslator#compile(List)}.
+     * @param replacements the pair of replacements for the boolean values, or {@code null} to keep them.
+     * @param values       the values to replace the placeholders with.
+     * @return the translated texts.
+     */
+    @Nonnull
+    public static List<String> renderLore(@Nonnull final List<PlaceholderTemplate> templates, @Nullable final Pair<String, String> replacements, @Nullable final Object... values) {
+        final int listIndex = PlaceholderTranslator.containsList(values);
+        final List<String> lore = new ArrayList<>(templates.size());
+        for (PlaceholderTemplate template : templates) {
+            if (listIndex >= 0 && template.hasIndex(listIndex)) {
+                for (Object element : (List<?>) values[listIndex])
+                    lore.add(withBooleans(template.renderIndexed(values, listIndex, element), replacements));
+                continue;
+            }
+            lore.add(withBooleans(template.renderIndexed(values, -1, null), replacements));
+        }
+        return lore;
+    }
+
+    /**
+     * Replace the placeholders by name for every text in the list. If one of the values is a
+     * {@link List}, every text with that placeholder is added once for every element in the list.
+     *
+     * @param templates the compiled texts from {@link PlaceholderTranslator#compile(List)}.
+     * @param values    the placeholder names and values.
+     * @return the translated texts.
+     */
+    @Nonnull
+    public static List<String> renderLore(@Nonnull final List<PlaceholderTemplate> templates, @Nullable final Map<String, Object> values) {
+        final Map.Entry<String, Object> listEntry = PlaceholderTranslator.containsList(values);
+        final List<String> lore = new ArrayList<>(templates.size());
+        for (PlaceholderTemplate template : templates) {
+            if (listEntry != null && template.slotNames.contains(listEntry.getKey())) {
+                for (Object element : (List<?>) listEntry.getValue())
+                    lore.add(template.replaceOtherKeys(template.renderNamed(values, listEntry.getKey(), element), values));
+                continue;
+            }
+            lore.add(template.render(values));
+        }
+        return lore;
+    }
+
+    /**
+     * Check if this template has any placeholders.
+     *
+     * @return {@code true} if it has at least one placeholder.
+     */
+    public boolean hasPlaceholders() {
+        return this.slots.length > 0;
+    }
+
+    /**
+     * Retrieve the text this template was compiled from.
+     *
+     * @return the raw text.
+     */
+    @Nonnull
+    public String getRaw() {
+        return raw;
+    }
+
+    private boolean hasIndex(final int index) {
+        for (int slotIndex : this.indexes)
+            if (slotIndex == index)
+                return true;
+        return false;
+    }
+
+    private String renderIndexed(@Nullable final Object[] values, final int listIndex, final Object element) {
+        if (this.slots.length == 0)
+            return this.raw;
+        final StringBuilder builder = new StringBuilder(this.raw.length() + 16 * this.slots.length);
+        for (int i = 0; i < this.slots.length; i++) {
+            builder.append(this.parts[i]);
+            final int index = this.indexes[i];
+            final Object value;
+            if (index >= 0 && index == listIndex)
+                value = element;
+            else if (values == null || index < 0 || index >= values.length || values[index] instanceof List)
+                value = NO_VALUE;
+            else
+                value = values[index];
+            this.appendValue(builder, i, value);
+        }
+        return builder.append(this.parts[this.parts.length - 1]).toString();
+    }
+
+    private String renderNamed(@Nullable final Map<String, Object> values, final String listKey, final Object element) {
+        if (this.slots.length == 0 || values == null)
+            return this.raw;
+        final StringBuilder builder = new StringBuilder(this.raw.length() + 16 * this.slots.length);
+        for (int i = 0; i < this.slots.length; i++) {
+            builder.append(this.parts[i]);
+            final String slot = this.slots[i];
+            final Object value;
+            if (slot.equals(listKey))
+                value = element;
+            else if (!values.containsKey(slot) || values.get(slot) instanceof List)
+                value = NO_VALUE;
+            else
+                value = values.get(slot);
+            this.appendValue(builder, i, value);
+        }
+        return builder.append(this.parts[this.parts.length - 1]).toString();
+    }
+
+    private void appendValue(final StringBuilder builder, final int slot, final Object value) {
+        if (value == NO_VALUE)
+            builder.append('{').append(this.slots[slot]).append('}');
+        else if (value != null)
+            builder.append(value);
+    }
+
+    /**
+     * Replace the keys that are not set as a placeholder in this text, where the key
+     * is found in the text. This is how the boolean keys from
+     * {@link PlaceholderTranslator.PlaceholderWrapper#putBooleans(String, String)} are replaced.
+     */
+    private String replaceOtherKeys(String text, final Map<String, Object> values) {
+        if (values == null)
+            return text;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (this.slotNames.contains(key) || value instanceof List)
+                continue;
+            final String replacement = value != null ? value.toString() : "";
+            final String placeholder = "{" + key + "}";
+            if (text.contains(placeholder))
+                text = text.replace(placeholder, replacement);
+            else
+                text = text.replace(key, replacement);
+        }
+        return text;
+    }
+
+    private static String withBooleans(final String text, @Nullable final Pair<String, String> replacements) {
+        if (replacements != null)
+            return PlaceholderTranslator.replaceBooleans(text, replacements);
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceholderTemplate{" +
+                "raw='" + raw + '\'' +
+                ", placeholders=" + slots.length +
+                '}';
+    }
+}
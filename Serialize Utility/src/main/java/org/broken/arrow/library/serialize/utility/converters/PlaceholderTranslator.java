@@ -1,8 +1,11 @@
 package org.broken.arrow.library.serialize.utility.converters;
 
+import org.broken.arrow.library.color.utility.LruCache;
 import org.broken.arrow.library.serialize.utility.Pair;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,15 +15,62 @@ import java.util.function.Consumer;
  * Utility class for replacing string placeholders with corresponding values.
  * Placeholders are identified using the format "{index}" where 'index' represents
  * the position of the value in the placeholders array.
+ * <p>
+ * The texts are compiled to a {@link PlaceholderTemplate} the first time they are translated
+ * and the templates are cached by the text, so the same text is only searched for
+ * placeholders once.
+ * </p>
  */
 public class PlaceholderTranslator {
 
     private static final String FALSE_TEXT = "false";
     private static final String TRUE_TEXT = "true";
+    private static final LruCache<String, PlaceholderTemplate> TEMPLATE_CACHE = new LruCache<>(1024);
+    private static final LruCache<List<String>, List<PlaceholderTemplate>> LORE_CACHE = new LruCache<>(256);
 
     private PlaceholderTranslator() {
     }
 
+    /**
+     * Compile the text to a template, that can replace the placeholders in one pass.
+     * The templates are cached by the text.
+     *
+     * @param rawText the text with placeholders like {0} or {name}.
+     * @return the compiled template.
+     */
+    @Nonnull
+    public static PlaceholderTemplate compile(@Nonnull final String rawText) {
+        return TEMPLATE_CACHE.computeIfAbsent(rawText, PlaceholderTemplate::compile);
+    }
+
+    /**
+     * Compile every text in the list to a template, use it with
+     * {@link PlaceholderTemplate#renderLore(List, Pair, Object...)}. The templates are cached by the texts in the list.
+     *
+     * @param listOfText the texts with placeholders like {0} or {name}.
+     * @return the compiled templates, in the same order as the texts.
+     */
+    @Nonnull
+    public static List<PlaceholderTemplate> compile(@Nonnull final List<String> listOfText) {
+        return LORE_CACHE.computeIfAbsent(new ArrayList<>(listOfText), texts -> {
+            final List<PlaceholderTemplate> templates = new ArrayList<>(texts.size());
+            for (String text : texts)
+                templates.add(text == null ? PlaceholderTemplate.compile("null") : compile(text));
+            return Collections.unmodifiableList(templates);
+        });
+    }
+
+    /**
+     * Set how many texts and lists of texts to keep compiled in the cache.
+     * Set it to 0 to turn off the cache.
+     *
+     * @param cacheSize the amount of texts to keep.
+     */
+    public static void setCacheSize(final int cacheSize) {
+        TEMPLATE_CACHE.setMaximumSize(cacheSize);
+        LORE_CACHE.setMaximumSize(cacheSize);
+    }
+
     /**
      * Translates placeholders in a list of strings by replacing them with corresponding values.
      * The placeholders are replaced in the order specified by the placeholders array.
@@ -45,18 +95,7 @@ public class PlaceholderTranslator {
      */
     public static List<String> translatePlaceholdersLore(final Pair<String, String> replacements, final List<String> listOfText, final Object... placeholders) {
         if (listOfText == null) return new ArrayList<>();
-        List<String> clonedLore = new ArrayList<>(listOfText);
-        List<String> list = new ArrayList<>();
-        for (String lore : clonedLore) {
-            if (!checkListForPlaceholdersAndTranslate(listOfText, lore, placeholders)) {
-                if (replacements != null) {
-                    list.add(translatePlaceholders(replacements, lore, placeholders));
-                } else {
-                    list.add(translatePlaceholders(lore, placeholders));
-                }
-            }
-        }
-        return list;
+        return PlaceholderTemplate.renderLore(compile(listOfText), replacements, placeholders);
     }
 
     /**
@@ -69,18 +108,9 @@ public class PlaceholderTranslator {
      */
     public static List<String> translatePlaceholders(final List<String> listOfText, final Consumer<PlaceholderWrapper> placeholders) {
         if (listOfText == null) return new ArrayList<>();
-        List<String> clonedLore = new ArrayList<>(listOfText);
-        List<String> list = new ArrayList<>();
-        for (String text : clonedLore) {
-            final PlaceholderWrapper placeholderWrapper = new PlaceholderWrapper();
-            placeholders.accept(placeholderWrapper);
-            final Map<String, Object> placeholderMap = placeholderWrapper.getPlaceholders();
-
-            if (!checkListForPlaceholdersAndTranslate(text, listOfText, placeholderMap)) {
-                list.add(translatePlaceholders(text, placeholderMap));
-            }
-        }
-        return list;
+        final PlaceholderWrapper placeholderWrapper = new PlaceholderWrapper();
+        placeholders.accept(placeholderWrapper);
+        return PlaceholderTemplate.renderLore(compile(listOfText), placeholderWrapper.getPlaceholders());
     }
 
     /**
@@ -108,22 +138,9 @@ public class PlaceholderTranslator {
      * @return The translated text.
      */
     public static String translatePlaceholders(String rawText, final Map<String, Object> placeholderMap) {
-        if (placeholderMap == null || placeholderMap.isEmpty())
+        if (rawText == null || placeholderMap == null || placeholderMap.isEmpty())
             return rawText;
-
-        for (Map.Entry<String, Object> entry : placeholderMap.entrySet()) {
-            final String key = entry.getKey();
-            final Object value = entry.getValue();
-
-            if (rawText == null || value instanceof List)
-                continue;
-            if (rawText.contains("{" + key + "}")) {
-                rawText = rawText.replace("{" + key + "}", value != null ? value.toString() : "");
-            } else {
-                rawText = rawText.replace(key, value != null ? value.toString() : "");
-            }
-        }
-        return rawText;
+        return compile(rawText).render(placeholderMap);
     }
 
     /**
@@ -177,16 +194,9 @@ public class PlaceholderTranslator {
      * @return The translated text.
      */
     public static String translatePlaceholders(Pair<String, String> replacements, String rawText, Object... placeholders) {
-        if (placeholders != null)
-            for (int i = 0; i < placeholders.length; i++) {
-                if (rawText == null || placeholders[i] instanceof List)
-                    continue;
-
-                rawText = rawText.replace("{" + i + "}", placeholders[i] != null ? placeholders[i].toString() : "");
-            }
-        if (replacements != null)
-            return replaceBooleans(rawText, replacements);
-        return rawText;
+        if (rawText == null)
+            return replacements != null ? "" : null;
+        return compile(rawText).render(replacements, placeholders);
     }
 
 
@@ -247,7 +257,7 @@ public class PlaceholderTranslator {
      *                     The first element will replace 'true' and the second will replace 'false'.
      * @return The text with boolean replacements.
      */
-    private static String replaceBooleans(String text, Pair<String, String> replacements) {
+    static String replaceBooleans(String text, Pair<String, String> replacements) {
         if (text != null) {
             if (text.contains(TRUE_TEXT)) {
                 return text.replace(TRUE_TEXT, replacements.getFirst());
@@ -0,0 +1,95 @@
+package org.broken.arrow.library.serialize.utility.serialize;
+
+import org.broken.arrow.library.logging.Validate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * Keeps the deserialize method for every {@link ConfigurationSerializable} class.
+ * <p>
+ * The static {@code deserialize(Map)} or {@code valueOf(Map)} method is looked up the first time a
+ * class is deserialized, and kept as a {@link MethodHandle}. After that, deserializing an object
+ * is one direct call without searching the methods of the class again.
+ * </p>
+ */
+public final class DeserializerRegistry {
+
+	private static final MethodType DESERIALIZE_TYPE = MethodType.methodType(Object.class, Map.class);
+	private static final ClassValue<Deserializer> DESERIALIZERS = new ClassValue<Deserializer>() {
+		@Override
+		protected Deserializer computeValue(@Nonnull final Class<?> type) {
+			return Deserializer.of(type);
+		}
+	};
+
+	private DeserializerRegistry() {
+	}
+
+	/**
+	 * Deserialize the data to an instance of the class, with the static
+	 * {@code deserialize(Map)} method or if it is missing, the {@code valueOf(Map)} method.
+	 *
+	 * @param <T>            The type of the deserialized object.
+	 * @param clazz          The class to deserialize the data to.
+	 * @param serializedData The serialized key-value data.
+	 * @return the deserialized object, or {@code null} if the class has no deserialize method.
+	 * @throws Validate.ValidateExceptions If the method is not static or could not be invoked.
+	 */
+	@Nullable
+	public static <T extends ConfigurationSerializable> T deserialize(@Nonnull final Class<T> clazz, @Nonnull final Map<String, Object> serializedData) {
+		return clazz.cast(DESERIALIZERS.get(clazz).invoke(serializedData));
+	}
+
+	/**
+	 * Check if the class has a static {@code deserialize(Map)} or {@code valueOf(Map)} method.
+	 *
+	 * @param clazz The class to check.
+	 * @return {@code true} if the class can be deserialized.
+	 */
+	public static boolean hasDeserializer(@Nonnull final Class<?> clazz) {
+		return DESERIALIZERS.get(clazz).method != null;
+	}
+
+	private static final class Deserializer {
+		private final Method method;
+		private final MethodHandle handle;
+
+		private Deserializer(final Method method, final MethodHandle handle) {
+			this.method = method;
+			this.handle = handle;
+		}
+
+		private static Deserializer of(final Class<?> clazz) {
+			Method method = MethodReflectionUtils.getMethod(clazz, "deserialize", Map.class);
+			if (method == null)
+				method = MethodReflectionUtils.getMethod(clazz, "valueOf", Map.class);
+			if (method == null || !Modifier.isStatic(method.getModifiers()))
+				return new Deserializer(method, null);
+			try {
+				return new Deserializer(method, MethodHandles.lookup().unreflect(method).asType(DESERIALIZE_TYPE));
+			} catch (final IllegalAccessException ex) {
+				throw new Validate.ValidateExceptions(ex, "Could not access static method " + method);
+			}
+		}
+
+		private Object invoke(final Map<String, Object> serializedData) {
+			if (this.method == null) return null;
+			if (this.handle == null)
+				throw new Validate.ValidateExceptions(this.method + " need to be static");
+			try {
+				return this.handle.invokeExact(serializedData);
+			} catch (final Error error) {
+				throw error;
+			} catch (final Throwable ex) {
+				throw new Validate.ValidateExceptions(ex, "Could not invoke static method " + this.method + " with params [" + serializedData + "]");
+			}
+		}
+	}
+}
@@ -64,7 +64,7 @@ public class ContainerUtility {
 		}
 
 		if (serverVersion > 13) {
-			if (title instanceof JsonObject || this.chatComponentMethodString == null)
+			if (title instanceof JsonObject || titleUtility.isJsonTitle(this.serverVersion) || this.chatComponentMethodString == null)
 				inventoryTitle = chatSerialMethod.invoke(null, title.toString());
 			else
 				inventoryTitle = this.chatComponentMethodString.invoke(null, title.toString());
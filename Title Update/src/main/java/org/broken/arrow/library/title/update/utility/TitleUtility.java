@@ -113,6 +113,21 @@ public class TitleUtility {
         return null;
     }
 
+    /**
+     * Checks if {@link #getTitle(float)} returns the title as a JSON component for this server
+     * version, either as a {@link JsonObject} or as a JSON string.
+     *
+     * @param serverVersion The version of the server.
+     * @return {@code true} if the title is a JSON component, {@code false} if it is plain text.
+     */
+    public boolean isJsonTitle(float serverVersion) {
+        if (serverVersion > 20.2F || serverVersion <= 13.0F)
+            return false;
+        if (this.jsonObjectTitle != null)
+            return true;
+        return this.title != null && this.defaultConvertColor;
+    }
+
     private String getTitleNewVersions() {
         if (this.title == null)
             return "";
@@ -125,7 +140,7 @@ public class TitleUtility {
 
     private Object getTitleLegacy(float serverVersion) {
         if (this.defaultConvertColor && serverVersion > 13.0F)
-            return TextTranslator.toComponent(title);
+            return TextTranslator.toComponentJson(title);
         else {
             if (this.defaultConvertColor)
                 return "'" + TextTranslator.toSpigotFormat(title) + "'";